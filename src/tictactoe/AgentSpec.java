@@ -0,0 +1,199 @@
+package tictactoe;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Text description of an agent configuration, used by Tournament.
+ *
+ * The form is type[:option=value,...], for example
+ *   alphabeta:depth=4,ordering=false
+ *   alphabeta:time=200,pvs=true,radius=2,threats=true
+ *   mcts:playouts=5000
+ *   minimax
+ *
+ * alphabeta options: depth (default unlimited), ordering (true), pvs
+ * (false), time in ms per move (0 = fixed depth), radius of a
+ * ProximityMoveGenerator (0 = all empty cells), threats (false).
+ * mcts options: playouts (20000), time in ms per move (0 = playout
+ * budget), radius (0).
+ * minimax has no options.
+ */
+public final class AgentSpec {
+
+    public enum Type { ALPHA_BETA, MCTS, MINIMAX }
+
+    private final Type type;
+    private final Map<String, String> options;
+
+    /**
+     * An agent built from a spec, as a function from position to move.
+     * Players are not thread-safe, but one thread can reuse a player for
+     * game after game.
+     */
+    public static final class Player implements Function<Board, Move> {
+        private final Function<Board, Move> search;
+        private final Runnable reset;
+
+        Player(Function<Board, Move> search, Runnable reset) {
+            this.search = search;
+            this.reset = reset;
+        }
+
+        @Override
+        public Move apply(Board board) {
+            return search.apply(board);
+        }
+
+        /**
+         * Clears what the agent kept from the last game (its transposition
+         * table), so the next game is played as by a fresh agent
+         */
+        public void newGame() {
+            reset.run();
+        }
+    }
+
+    private AgentSpec(Type type, Map<String, String> options) {
+        this.type = type;
+        this.options = options;
+    }
+
+    /**
+     * Parses a description; throws IllegalArgumentException for unknown
+     * types or options and malformed values
+     */
+    public static AgentSpec parse(String text) {
+        String[] parts = text.trim().split(":", 2);
+        Type type;
+        switch (parts[0].toLowerCase()) {
+            case "alphabeta": type = Type.ALPHA_BETA; break;
+            case "mcts": type = Type.MCTS; break;
+            case "minimax": type = Type.MINIMAX; break;
+            default: throw new IllegalArgumentException("Unknown agent type: " + parts[0]);
+        }
+
+        Map<String, String> options = new LinkedHashMap<>();
+        if (parts.length > 1 && !parts[1].isEmpty()) {
+            for (String option : parts[1].split(",")) {
+                String[] pair = option.split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Option needs a value: " + option);
+                }
+                options.put(pair[0].trim(), pair[1].trim());
+            }
+        }
+        AgentSpec spec = new AgentSpec(type, options);
+        spec.validate();
+        return spec;
+    }
+
+    /**
+     * Checks the option names and values without building an agent
+     */
+    private void validate() {
+        Map<String, String> unused = new LinkedHashMap<>(options);
+        switch (type) {
+            case ALPHA_BETA:
+                intOption(unused, "depth", Integer.MAX_VALUE);
+                boolOption(unused, "ordering", true);
+                boolOption(unused, "pvs", false);
+                intOption(unused, "radius", 0);
+                boolOption(unused, "threats", false);
+                intOption(unused, "time", 0);
+                break;
+            case MCTS:
+                if (intOption(unused, "playouts", 20_000) < 1) {
+                    throw new IllegalArgumentException("Option playouts must be at least 1");
+                }
+                intOption(unused, "radius", 0);
+                intOption(unused, "time", 0);
+                break;
+            default:
+                break;
+        }
+        if (!unused.isEmpty()) {
+            throw new IllegalArgumentException("Unknown option for " + type + ": " + unused.keySet());
+        }
+    }
+
+    /**
+     * Creates a fresh agent for this spec. Each game thread needs its own;
+     * call newGame() on it between games.
+     */
+    public Player newPlayer() {
+        Map<String, String> unused = new LinkedHashMap<>(options);
+        Player player;
+        switch (type) {
+            case ALPHA_BETA: {
+                int depth = intOption(unused, "depth", Integer.MAX_VALUE);
+                AlphaBetaAgent agent = new AlphaBetaAgent(depth, boolOption(unused, "ordering", true),
+                                                          boolOption(unused, "pvs", false));
+                int radius = intOption(unused, "radius", 0);
+                if (radius > 0) {
+                    agent.setMoveGenerator(new ProximityMoveGenerator(radius));
+                }
+                if (boolOption(unused, "threats", false)) {
+                    agent.setThreatSearch(new ThreatSpaceSearch());
+                }
+                int time = intOption(unused, "time", 0);
+                player = new Player(time > 0 ? board -> agent.alphaBeta(board, time) : agent::alphaBeta,
+                                    () -> agent.getTranspositionTable().clear());
+                break;
+            }
+            case MCTS: {
+                MctsAgent agent = new MctsAgent(intOption(unused, "playouts", 20_000));
+                int radius = intOption(unused, "radius", 0);
+                if (radius > 0) {
+                    agent.setMoveGenerator(new ProximityMoveGenerator(radius));
+                }
+                int time = intOption(unused, "time", 0);
+                player = new Player(time > 0 ? board -> agent.mcts(board, time) : agent::mcts, () -> { });
+                break;
+            }
+            default:
+                player = new Player(new MinimaxAgent()::minimax, () -> { });
+                break;
+        }
+        return player;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.remove(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + name + " must be a number: " + value);
+        }
+    }
+
+    private static boolean boolOption(Map<String, String> options, String name, boolean defaultValue) {
+        String value = options.remove(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!value.equals("true") && !value.equals("false")) {
+            throw new IllegalArgumentException("Option " + name + " must be true or false: " + value);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(type.name().toLowerCase().replace("_", ""));
+        String separator = ":";
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            text.append(separator).append(option.getKey()).append('=').append(option.getValue());
+            separator = ",";
+        }
+        return text.toString();
+    }
+}
@@ -1,186 +1,1082 @@
 package tictactoe;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util. Comparator;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Minimax with Alpha-Beta pruning implementation.
  * Supports depth-limited search with heuristic evaluation for larger boards.
+ *
+ * Two modes are available: a fixed-depth search (alphaBeta(board)) and an
+ * anytime search (alphaBeta(board, timeLimitMillis)) that deepens one ply
+ * at a time until the time budget runs out.
+ *
+ * With Principal Variation Search enabled, only the first child of a node
+ * gets the full window; the others are probed with a null window and
+ * re-searched only when the probe shows they can beat the best move so
+ * far. The anytime search then also starts each iteration with an
+ * aspiration window around the previous iteration's score.
+ *
+ * With more than one thread (setThreadCount) the search runs in parallel
+ * in one of two ways:
+ * - Lazy SMP (default): helper threads search the same root with a
+ *   rotated root move order and staggered depths, sharing the
+ *   transposition table with the main search. The main search's result is
+ *   returned; helpers only fill the table. Fast, but the move may vary
+ *   from run to run.
+ * - Deterministic (setDeterministic): the root moves are split between
+ *   the threads, each searching its moves with a full window and a private
+ *   table. The first move in root order with the best value is returned,
+ *   which is the move the sequential search picks at the same depth.
  */
 public class AlphaBetaAgent {
+    private static final int TIME_CHECK_INTERVAL = 1024; // nodes between clock reads
+    private static final double MIN_ASPIRATION_WINDOW = 10; // half-width floor of aspiration windows
+    private static final double HASH_MOVE_SCORE = 1e18;   // ordering score of the table's best move
+    private static final double KILLER_SCORE = 1e17;      // ordering score of the first killer slot
+    private static final long FIXED_DEPTH = -1;           // time limit meaning "no limit, use maxDepth"
+    private static final long NO_TIME_LIMIT = Long.MAX_VALUE / 4_000_000L; // about 70 years, in ms
+
     private int nodesExplored;
+    private SearchStats stats;       // counters of the last search
     private boolean useMoveOrdering;
+    private boolean usePvs;
     private int maxDepth;
-    
+    private int[][] moveBuffers;     // per-ply move lists, reused across searches
+    private double[][] scoreBuffers; // per-ply ordering scores, parallel to moveBuffers
+    private TranspositionTable table; // kept across searches; null disables it
+    private boolean useSymmetry;      // key the table on canonical (symmetry-reduced) positions
+    private int[] symmetries;         // transforms considered for the current search
+    private int[][] symmetryMaps;     // Symmetry.cellMaps for the current board size
+    private int[][] inverseMaps;      // Symmetry.inverseMaps, to read moves back out of the table
+    private Tablebase tablebase;      // solved endgames; null if none
+    private OpeningBook openingBook;  // precomputed opening moves; null if none
+    private MoveGenerator moveGenerator; // moves expanded at each node
+    private ThreatSpaceSearch threatSearch; // forced-win search run before the main search; null if off
+
+    // Dynamic move ordering, reset at the start of every search
+    private int[][] killers;          // two quiet moves per ply that last caused a cutoff
+    private int[][] history;          // butterfly table: cutoff weight by [player][cell]
+
+    // Iterative deepening state
+    private int searchDepth;      // depth limit of the current iteration
+    private boolean timed;        // whether the current iteration may be cut off
+    private long deadline;        // System.nanoTime() at which a timed search stops
+    private boolean aborted;      // set when the deadline passes mid-iteration
+    private int completedDepth;   // deepest fully searched iteration of the last search
+    private double rootValue;     // value of the best root move of the current iteration
+    private double lastValue;     // value of the best root move of the last completed iteration
+    private int[][] pv;           // triangular principal variation table, pv[ply][ply..]
+    private int[] pvLength;
+    private int[] previousPv;     // principal variation of the last completed iteration
+    private int previousPvLength;
+    private boolean followPv;     // whether the node being entered lies on previousPv
+
+    // Parallel search
+    private int threadCount;          // threads per search, including the caller's
+    private boolean deterministic;    // split the root instead of running Lazy SMP
+    private AlphaBetaAgent[] helpers; // per-thread search state; [0] only used when deterministic
+    private ExecutorService pool;     // threadCount - 1 daemon threads
+    private int[] threadNodes;        // nodes searched by each thread in the last search
+    private int helperIndex;          // 0 for the main agent, > 0 in helpers
+    private TranspositionTable privateTable; // a helper's own table for deterministic searches
+    private SearchBoard rootBoard;    // a helper's copy of the root in deterministic searches
+    private volatile boolean stopped; // set by the main agent to end a helper's search
+    private SearchContext context;    // limits of a SearchEngine search; null otherwise
+    private int reportedNodes;        // nodes of this search already added to the context
+
     public AlphaBetaAgent() {
         this(Integer.MAX_VALUE, true);
     }
-    
+
     public AlphaBetaAgent(int maxDepth, boolean useMoveOrdering) {
+        this(maxDepth, useMoveOrdering, false);
+    }
+
+    /**
+     * @param usePvs search with Principal Variation Search (and aspiration
+     *               windows when deepening) instead of plain alpha-beta
+     */
+    public AlphaBetaAgent(int maxDepth, boolean useMoveOrdering, boolean usePvs) {
+        this(maxDepth, useMoveOrdering, usePvs, new HeapTranspositionTable());
+    }
+
+    /**
+     * Creates an agent using the given table (null for none), for helpers
+     * and pooled agents that are handed a shared table and would otherwise
+     * allocate a default one only to drop it
+     */
+    AlphaBetaAgent(int maxDepth, boolean useMoveOrdering, boolean usePvs, TranspositionTable table) {
         this.maxDepth = maxDepth;
         this.useMoveOrdering = useMoveOrdering;
+        this.usePvs = usePvs;
         this.nodesExplored = 0;
+        this.table = table;
+        this.useSymmetry = true;
+        this.moveGenerator = MoveGenerator.ALL_EMPTY;
+        this.threadCount = 1;
+        this.threadNodes = new int[1];
+        this.stats = new SearchStats(0);
     }
-    
+
     /**
      * Returns best move using Alpha-Beta pruning
      */
     public Move alphaBeta(Board board) {
+        return search(board, FIXED_DEPTH);
+    }
+
+    /**
+     * Returns best move using iterative deepening within a time budget.
+     * Searches depth 1, 2, 3... (up to the agent's maximum depth) and
+     * returns the best move of the deepest iteration that finished before
+     * the deadline. Each iteration searches the previous principal
+     * variation first. The first iteration always runs to completion so a
+     * move is returned even with a tiny budget.
+     */
+    public Move alphaBeta(Board board, long timeLimitMillis) {
+        return search(board, timeLimitMillis);
+    }
+
+    /**
+     * Iterative deepening search bounded by the context's limits, as run
+     * by SearchEngine. The agent's own depth limit still applies.
+     */
+    Move alphaBeta(Board board, SearchContext context) {
+        int savedMaxDepth = maxDepth;
+        this.context = context;
+        maxDepth = Math.min(maxDepth, context.getMaxDepth());
+        try {
+            long time = context.getTimeLimit();
+            return search(board, time == 0 ? NO_TIME_LIMIT : time);
+        } finally {
+            this.context = null;
+            maxDepth = savedMaxDepth;
+        }
+    }
+
+    /**
+     * Principal variation of the last completed iteration of a timed
+     * search, as cell indices
+     */
+    int[] getPrincipalVariation() {
+        return previousPv == null ? new int[0] : Arrays.copyOf(previousPv, previousPvLength);
+    }
+
+    /**
+     * Plays from the opening book or runs the configured search, then
+     * completes the statistics and the flight recorder event
+     */
+    private Move search(Board board, long timeLimitMillis) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        Move move = bookMove(board);
+        if (move == null) {
+            move = threatMove(board);
+        }
+        if (move == null) {
+            if (threadCount > 1) {
+                move = deterministic ? splitSearch(board, timeLimitMillis)
+                                     : lazySmpSearch(board, timeLimitMillis);
+            } else {
+                move = timeLimitMillis == FIXED_DEPTH ? fixedDepthSearch(board)
+                                                      : timedSearch(board, timeLimitMillis);
+                threadNodes[0] = nodesExplored;
+            }
+        }
+
+        stats.nodes = nodesExplored;
+        stats.elapsedNanos = System.nanoTime() - start;
+        event.complete("AlphaBeta", board, threadCount, stats, move);
+        return move;
+    }
+
+    /**
+     * Returns the opening book's move for the position, or null to search
+     */
+    private Move bookMove(Board board) {
+        if (openingBook == null) {
+            return null;
+        }
+        Move move = openingBook.lookup(board);
+        if (move != null) {
+            nodesExplored = 0;
+            completedDepth = 0;
+            lastValue = Double.NaN; // the book stores moves only
+            Arrays.fill(threadNodes, 0);
+            stats = new SearchStats(board.getSize() * board.getSize());
+        }
+        return move;
+    }
+
+    /**
+     * Returns the first move of a forced win found by the threat search,
+     * or null to search
+     */
+    private Move threatMove(Board board) {
+        if (threatSearch == null || GameEngine.terminal(board)) {
+            return null;
+        }
+        int cell = threatSearch.findWin(new SearchBoard(board));
+        if (cell < 0) {
+            return null;
+        }
+        int m = board.getSize();
+        nodesExplored = threatSearch.getNodes();
+        completedDepth = 0;
+        lastValue = board.getCurrentPlayer() == 'X' ? 1 : -1; // a forced win, as a terminal utility
+        Arrays.fill(threadNodes, 0);
+        threadNodes[0] = nodesExplored;
+        stats = new SearchStats(m * m);
+        return Move.ofCell(cell, m);
+    }
+
+    private Move fixedDepthSearch(Board board) {
         nodesExplored = 0;
-        List<Move> actions = GameEngine.actions(board);
-        
-        if (actions.isEmpty()) {
+        SearchBoard search = startSearch(board);
+        if (search.isFull()) {
             return null;
         }
-        
-        char player = GameEngine.player(board);
+
+        SearchIterationEvent event = new SearchIterationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int bestMove = searchRoot(search, maxDepth, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        completedDepth = Math.min(maxDepth, search.getCellCount() - search.getMoveCount());
+        lastValue = rootValue;
+        completeIteration(event, completedDepth, nodesExplored, start, bestMove);
+        return toMove(bestMove, search.getSize());
+    }
+
+    private Move timedSearch(Board board, long timeLimitMillis) {
+        nodesExplored = 0;
+        deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+        SearchBoard search = startSearch(board);
+        if (search.isFull()) {
+            return null;
+        }
+
+        int emptyCells = search.getCellCount() - search.getMoveCount();
+        int depthCap = Math.min(maxDepth, emptyCells);
+        int bestMove = -1;
+
+        for (int depth = 1; depth <= depthCap; depth++) {
+            timed = depth > 1;
+            SearchIterationEvent event = new SearchIterationEvent();
+            event.begin();
+            long start = System.nanoTime();
+            int startNodes = nodesExplored;
+            int move;
+            if (usePvs && depth > 1) {
+                // Aspiration window around the previous score; widen fully on failure
+                double delta = Math.max(MIN_ASPIRATION_WINDOW, Math.abs(lastValue) / 4);
+                double low = lastValue - delta;
+                double high = lastValue + delta;
+                move = searchRoot(search, depth, low, high);
+                if (!aborted && (rootValue <= low || rootValue >= high)) {
+                    move = searchRoot(search, depth, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+                }
+            } else {
+                move = searchRoot(search, depth, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+            }
+            if (aborted) {
+                break; // Keep the result of the last completed iteration
+            }
+
+            bestMove = move;
+            completedDepth = depth;
+            lastValue = rootValue;
+            System.arraycopy(pv[0], 0, previousPv, 0, pvLength[0]);
+            previousPvLength = pvLength[0];
+            completeIteration(event, depth, nodesExplored - startNodes, start, bestMove);
+
+            if (System.nanoTime() - deadline >= 0 || contextStops()) {
+                break;
+            }
+        }
+
+        timed = false;
+        return toMove(bestMove, search.getSize());
+    }
+
+    /**
+     * Lazy SMP: helpers search the same position in the background while
+     * this agent runs its normal search; they stop when it is done.
+     */
+    private Move lazySmpSearch(Board board, long timeLimitMillis) {
+        boolean timedSearch = timeLimitMillis != FIXED_DEPTH;
+        long stopTime = System.nanoTime() + timeLimitMillis * 1_000_000L;
+        Future<?>[] futures = new Future<?>[threadCount];
+        for (int i = 1; i < threadCount; i++) {
+            AlphaBetaAgent helper = helpers[i];
+            configure(helper);
+            helper.table = table;
+            helper.stopped = false;
+            futures[i] = pool.submit(() -> helper.helperSearch(board, timedSearch, stopTime));
+        }
+
+        Move move = timeLimitMillis == FIXED_DEPTH ? fixedDepthSearch(board)
+                                                   : timedSearch(board, timeLimitMillis);
+
+        for (int i = 1; i < threadCount; i++) {
+            helpers[i].stopped = true;
+        }
+        threadNodes[0] = nodesExplored;
+        for (int i = 1; i < threadCount; i++) {
+            await(futures[i]);
+            threadNodes[i] = helpers[i].nodesExplored;
+            nodesExplored += threadNodes[i];
+            stats.add(helpers[i].stats);
+        }
+        return move;
+    }
+
+    /**
+     * Body of a Lazy SMP helper: deepens until stopped, or in a timed
+     * search until the deadline or the context's limits. Odd helpers run
+     * one ply ahead of the main search so their entries are ready when it
+     * arrives.
+     */
+    private void helperSearch(Board board, boolean timedSearch, long stopTime) {
+        nodesExplored = 0;
+        SearchBoard search = startSearch(board);
+        if (search.isFull()) {
+            return;
+        }
+        timed = timedSearch;
+        deadline = stopTime;
+        int depthCap = Math.min(maxDepth, search.getCellCount() - search.getMoveCount());
+        for (int depth = 1 + (helperIndex & 1); depth <= depthCap && !stopped; depth++) {
+            searchRoot(search, depth, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+            if (aborted) {
+                break;
+            }
+            System.arraycopy(pv[0], 0, previousPv, 0, pvLength[0]);
+            previousPvLength = pvLength[0];
+        }
+    }
+
+    /**
+     * Deterministic parallel search: the ordered root moves are dealt out
+     * round-robin to the threads, which compute their exact values
+     * independently. With a time limit each depth of an iterative
+     * deepening search is one such split.
+     */
+    private Move splitSearch(Board board, long timeLimitMillis) {
+        nodesExplored = 0;
+        deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+        SearchBoard search = startSearch(board);
+        Arrays.fill(threadNodes, 0);
+        if (search.isFull()) {
+            return null;
+        }
+
+        int[] moves = moveBuffers[0];
+        int count = moveGenerator.generate(search, moves);
+        if (useMoveOrdering) {
+            orderMoves(search, moves, scoreBuffers[0], count, 0, -1);
+        }
+        double[] values = new double[count];
+        for (AlphaBetaAgent helper : helpers) {
+            // Private tables keep each thread's work independent of timing
+            if (helper.privateTable == null && table != null) {
+                helper.privateTable = new HeapTranspositionTable();
+            }
+            configure(helper);
+            helper.table = table != null ? helper.privateTable : null;
+            if (helper.table != null) {
+                helper.table.clear();
+            }
+            helper.nodesExplored = 0;
+            helper.rootBoard = helper.startSearch(board);
+        }
+
+        boolean fixed = timeLimitMillis == FIXED_DEPTH;
+        int depthCap = Math.min(maxDepth, search.getCellCount() - search.getMoveCount());
+        int bestMove = -1;
+        for (int depth = fixed ? depthCap : 1; depth <= depthCap; depth++) {
+            boolean timedIteration = !fixed && depth > 1;
+            SearchIterationEvent event = new SearchIterationEvent();
+            event.begin();
+            long start = System.nanoTime();
+            long startNodes = helperNodes();
+            Future<?>[] futures = new Future<?>[threadCount];
+            for (int i = 1; i < threadCount; i++) {
+                AlphaBetaAgent helper = helpers[i];
+                int iteration = depth;
+                futures[i] = pool.submit(() -> helper.searchRootMoves(
+                        moves, count, threadCount, iteration, timedIteration, deadline, values));
+            }
+            helpers[0].searchRootMoves(moves, count, threadCount, depth, timedIteration, deadline, values);
+            boolean anyAborted = helpers[0].aborted;
+            for (int i = 1; i < threadCount; i++) {
+                await(futures[i]);
+                anyAborted |= helpers[i].aborted;
+            }
+            if (anyAborted) {
+                break; // Keep the result of the last completed iteration
+            }
+
+            // First move in root order with the best value, as in searchRoot
+            boolean isMaximizing = search.getCurrentPlayer() == 'X';
+            int best = 0;
+            for (int i = 1; i < count; i++) {
+                if (isMaximizing ? values[i] > values[best] : values[i] < values[best]) {
+                    best = i;
+                }
+            }
+            bestMove = moves[best];
+            lastValue = values[best];
+            completedDepth = depth;
+            completeIteration(event, depth, helperNodes() - startNodes, start, bestMove);
+            promote(moves, count, bestMove); // Search the best move first next time
+
+            if (!fixed && (System.nanoTime() - deadline >= 0
+                           || context != null && context.shouldStop(helperNodes()))) {
+                break;
+            }
+        }
+
+        for (int i = 0; i < threadCount; i++) {
+            threadNodes[i] = helpers[i].nodesExplored;
+            nodesExplored += threadNodes[i];
+            stats.add(helpers[i].stats);
+        }
+        return toMove(bestMove, search.getSize());
+    }
+
+    /**
+     * Copies the search settings into a helper at the start of a parallel
+     * search, so settings changed since setThreadCount and the context of
+     * a SearchEngine search reach every thread. The table is assigned by
+     * the caller.
+     */
+    private void configure(AlphaBetaAgent helper) {
+        helper.maxDepth = maxDepth;
+        helper.useMoveOrdering = useMoveOrdering;
+        helper.usePvs = usePvs;
+        helper.useSymmetry = useSymmetry;
+        helper.tablebase = tablebase;
+        helper.moveGenerator = moveGenerator;
+        helper.context = context;
+    }
+
+    private long helperNodes() {
+        long total = 0;
+        for (AlphaBetaAgent helper : helpers) {
+            total += helper.nodesExplored;
+        }
+        return total;
+    }
+
+    /**
+     * Records a completed iteration in the statistics and commits its
+     * flight recorder event
+     */
+    private void completeIteration(SearchIterationEvent event, int depth, long iterationNodes,
+                                   long start, int bestMove) {
+        stats.recordIteration(depth, iterationNodes, System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.depth = depth;
+            event.nodes = iterationNodes;
+            event.value = lastValue;
+            event.bestMove = bestMove;
+            event.commit();
+        }
+    }
+
+    /**
+     * Searches every step-th root move (starting at this helper's index)
+     * with a full window and writes the exact values. Node counts
+     * accumulate across calls of one split search.
+     */
+    private void searchRootMoves(int[] moves, int count, int step, int depthLimit,
+                                 boolean timedIteration, long stopTime, double[] values) {
+        searchDepth = depthLimit;
+        timed = timedIteration;
+        deadline = stopTime;
+        aborted = false;
+        boolean childMaximizing = rootBoard.getCurrentPlayer() != 'X';
+        for (int i = helperIndex; i < count && !aborted; i += step) {
+            followPv = false;
+            rootBoard.play(moves[i]);
+            values[i] = alphaBetaValue(rootBoard, 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                                       childMaximizing);
+            rootBoard.undo();
+        }
+    }
+
+    /**
+     * Whether the context of a SearchEngine search asks to stop. Every
+     * thread adds its nodes to the context as it goes, so the node limit
+     * applies to the search as a whole.
+     */
+    private boolean contextStops() {
+        if (context == null) {
+            return false;
+        }
+        long total = context.addNodes(nodesExplored - reportedNodes);
+        reportedNodes = nodesExplored;
+        return context.shouldStop(total);
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search thread", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed", e.getCause());
+        }
+    }
+
+    /**
+     * Resets per-search state and returns the board to search on
+     */
+    private SearchBoard startSearch(Board board) {
+        SearchBoard search = new SearchBoard(board);
+        int m = search.getSize();
+        ensureBuffers(search.getCellCount());
+        stats = new SearchStats(search.getCellCount());
+        symmetries = useSymmetry ? Symmetry.searchTransforms(m, search.getWinCondition())
+                                 : Symmetry.NONE;
+        symmetryMaps = Symmetry.cellMaps(m);
+        inverseMaps = Symmetry.inverseMaps(m);
+        for (int[] slots : killers) {
+            slots[0] = -1;
+            slots[1] = -1;
+        }
+        Arrays.fill(history[0], 0);
+        Arrays.fill(history[1], 0);
+        timed = false;
+        aborted = false;
+        reportedNodes = 0;
+        completedDepth = 0;
+        previousPvLength = 0;
+        return search;
+    }
+
+    /**
+     * Searches all root moves to the given depth within (alpha, beta) and
+     * returns the best one as a cell index. Leaves the value in rootValue
+     * and the principal variation in pv[0]. If rootValue falls outside the
+     * window, the move is not reliable and the caller must search again.
+     */
+    private int searchRoot(SearchBoard search, int depthLimit, double alpha, double beta) {
+        searchDepth = depthLimit;
+        aborted = false;
+        pvLength[0] = 0;
+
+        int[] moves = moveBuffers[0];
+        int count = moveGenerator.generate(search, moves);
+
+        char player = search.getCurrentPlayer();
         boolean isMaximizing = (player == 'X');
-        
-        // Apply move ordering
+
+        // Apply move ordering; without it moves stay in lexicographic order
         if (useMoveOrdering) {
-            actions = orderMoves(board, actions);
-        } else {
-            Collections.sort(actions);
-        }
-        
-        Move bestMove = null;
-        double bestValue = isMaximizing ?  Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
-        double alpha = Double.NEGATIVE_INFINITY;
-        double beta = Double.POSITIVE_INFINITY;
-        
-        for (Move action : actions) {
-            Board newBoard = GameEngine.result(board, action);
-            double value = alphaBetaValue(newBoard, 1, alpha, beta, !isMaximizing);
-            
+            orderMoves(search, moves, scoreBuffers[0], count, 0, -1);
+        }
+        if (helperIndex > 0) {
+            rotate(moves, count, helperIndex % count); // Lazy SMP helpers diverge from the main search
+        }
+        boolean onPv = previousPvLength > 0 && promote(moves, count, previousPv[0]);
+
+        int bestMove = -1;
+        double bestValue = isMaximizing ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < count; i++) {
+            followPv = onPv && i == 0;
+            search.play(moves[i]);
+            double value = searchChild(search, 0, alpha, beta, !isMaximizing, i == 0);
+            search.undo();
+            if (aborted) {
+                return -1;
+            }
+
             if (isMaximizing) {
                 if (value > bestValue) {
                     bestValue = value;
-                    bestMove = action;
+                    bestMove = moves[i];
+                    updatePv(0, moves[i]);
                 }
                 alpha = Math.max(alpha, bestValue);
             } else {
                 if (value < bestValue) {
                     bestValue = value;
-                    bestMove = action;
+                    bestMove = moves[i];
+                    updatePv(0, moves[i]);
                 }
                 beta = Math.min(beta, bestValue);
             }
+            if (beta <= alpha) {
+                break; // Outside the aspiration window
+            }
         }
-        
+
+        rootValue = bestValue;
         return bestMove;
     }
-    
+
     /**
      * Recursive alpha-beta value calculation with depth limit
      */
-    private double alphaBetaValue(Board board, int depth, double alpha, double beta, 
-                                   boolean isMaximizing) {
+    private double alphaBetaValue(SearchBoard board, int depth, double alpha, double beta,
+                                  boolean isMaximizing) {
         nodesExplored++;
-        
+        boolean onPv = followPv;
+        followPv = false;
+        pvLength[depth] = depth;
+
+        if (nodesExplored % TIME_CHECK_INTERVAL == 0
+                && (stopped || timed && (System.nanoTime() - deadline >= 0 || contextStops()))) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+
         // Terminal or depth limit reached
-        if (GameEngine. terminal(board)) {
+        if (GameEngine.terminal(board)) {
+            stats.leafEvaluations++;
             Integer utility = GameEngine.utility(board);
             return utility != null ? utility : 0;
         }
-        
-        if (depth >= maxDepth) {
+
+        // A tablebase hit is only the search's value if the search would
+        // have reached the end of the game from here
+        int emptyCells = board.getCellCount() - board.getMoveCount();
+        if (tablebase != null && searchDepth - depth >= emptyCells) {
+            int entry = tablebase.probe(board);
+            if (entry >= 0) {
+                return Tablebase.utility(entry);
+            }
+        }
+
+        if (depth >= searchDepth) {
+            stats.leafEvaluations++;
             return HeuristicEvaluator.evaluate(board);
         }
-        
-        List<Move> actions = GameEngine.actions(board);
-        
+
+        // Searching past the last empty cell gives the exact value, so the
+        // remaining depth is capped there to make such entries reusable
+        int remaining = Math.min(searchDepth - depth, emptyCells);
+        int symmetry = board.canonicalSymmetry(symmetries);
+        long key = board.getSymmetricKey(symmetry);
+        double alphaOrig = alpha;
+        double betaOrig = beta;
+
+        // Transposition table lookup before expanding the node. An entry
+        // too shallow to cut still gives the best move to try first.
+        int hashMove = -1;
+        if (table != null) {
+            long entry = table.probe(key);
+            stats.tableProbes++;
+            if (entry != 0) {
+                stats.tableHits++;
+            }
+            if (entry != 0 && TranspositionTable.move(entry) >= 0) {
+                hashMove = inverseMaps[symmetry][TranspositionTable.move(entry)];
+            }
+            if (entry != 0 && TranspositionTable.depth(entry) >= remaining) {
+                double value = TranspositionTable.value(entry);
+                switch (TranspositionTable.bound(entry)) {
+                    case EXACT:
+                        return value;
+                    case LOWER:
+                        alpha = Math.max(alpha, value);
+                        break;
+                    case UPPER:
+                        beta = Math.min(beta, value);
+                        break;
+                }
+                if (beta <= alpha) {
+                    return value;
+                }
+            }
+        }
+
+        int[] moves = moveBuffers[depth];
+        int count = moveGenerator.generate(board, moves);
+
         // Apply move ordering
         if (useMoveOrdering) {
-            actions = orderMoves(board, actions);
-        } else {
-            Collections.sort(actions);
+            orderMoves(board, moves, scoreBuffers[depth], count, depth, hashMove);
         }
-        
+        // The previous iteration's principal variation goes first
+        onPv = onPv && depth < previousPvLength && promote(moves, count, previousPv[depth]);
+
+        double bestValue;
+        int bestMove = -1;
         if (isMaximizing) {
-            double maxValue = Double. NEGATIVE_INFINITY;
-            for (Move action : actions) {
-                Board newBoard = GameEngine. result(board, action);
-                double value = alphaBetaValue(newBoard, depth + 1, alpha, beta, false);
-                maxValue = Math.max(maxValue, value);
-                alpha = Math.max(alpha, maxValue);
+            bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                followPv = onPv && i == 0;
+                board.play(moves[i]);
+                double value = searchChild(board, depth, alpha, beta, false, i == 0);
+                board.undo();
+                if (aborted) {
+                    return 0;
+                }
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestMove = moves[i];
+                    updatePv(depth, moves[i]);
+                }
+                alpha = Math.max(alpha, bestValue);
                 if (beta <= alpha) {
+                    recordCutoff(depth, 0, moves[i], remaining, i);
                     break; // Beta cutoff
                 }
             }
-            return maxValue;
         } else {
-            double minValue = Double.POSITIVE_INFINITY;
-            for (Move action : actions) {
-                Board newBoard = GameEngine.result(board, action);
-                double value = alphaBetaValue(newBoard, depth + 1, alpha, beta, true);
-                minValue = Math.min(minValue, value);
-                beta = Math.min(beta, minValue);
+            bestValue = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                followPv = onPv && i == 0;
+                board.play(moves[i]);
+                double value = searchChild(board, depth, alpha, beta, true, i == 0);
+                board.undo();
+                if (aborted) {
+                    return 0;
+                }
+                if (value < bestValue) {
+                    bestValue = value;
+                    bestMove = moves[i];
+                    updatePv(depth, moves[i]);
+                }
+                beta = Math.min(beta, bestValue);
                 if (beta <= alpha) {
+                    recordCutoff(depth, 1, moves[i], remaining, i);
                     break; // Alpha cutoff
                 }
             }
-            return minValue;
+        }
+
+        if (table != null) {
+            TranspositionTable.Bound bound;
+            if (bestValue <= alphaOrig) {
+                bound = TranspositionTable.Bound.UPPER;
+            } else if (bestValue >= betaOrig) {
+                bound = TranspositionTable.Bound.LOWER;
+            } else {
+                bound = TranspositionTable.Bound.EXACT;
+            }
+            // The move is stored in the canonical frame of the key
+            table.store(key, bestValue, remaining, bound,
+                        bestMove < 0 ? -1 : symmetryMaps[symmetry][bestMove]);
+        }
+        return bestValue;
+    }
+
+    /**
+     * Remembers a move that caused a cutoff at the given ply: as a killer
+     * for sibling positions and in the history table, weighted by the
+     * square of the remaining depth so cutoffs near the root count most.
+     * index is the move's position in the searched move list.
+     */
+    private void recordCutoff(int depth, int player, int move, int remaining, int index) {
+        stats.cutoffsByMoveIndex[index]++;
+        int[] killerSlots = killers[depth];
+        if (killerSlots[0] != move) {
+            killerSlots[1] = killerSlots[0];
+            killerSlots[0] = move;
+        }
+        history[player][move] += remaining * remaining;
+    }
+
+    /**
+     * Searches the child just played from a node at the given depth.
+     * Under PVS every child but the first is first probed with a null
+     * window at the bound the parent must beat, and re-searched with the
+     * full window only if the probe says it does.
+     */
+    private double searchChild(SearchBoard board, int depth, double alpha, double beta,
+                               boolean childMaximizing, boolean first) {
+        if (!usePvs || first) {
+            return alphaBetaValue(board, depth + 1, alpha, beta, childMaximizing);
+        }
+
+        if (!childMaximizing) {
+            // Maximizing parent: does the child beat alpha?
+            double value = alphaBetaValue(board, depth + 1, alpha, Math.nextUp(alpha), false);
+            if (value > alpha && value < beta && !aborted) {
+                value = alphaBetaValue(board, depth + 1, alpha, beta, false);
+            }
+            return value;
+        } else {
+            // Minimizing parent: does the child get below beta?
+            double value = alphaBetaValue(board, depth + 1, Math.nextDown(beta), beta, true);
+            if (value < beta && value > alpha && !aborted) {
+                value = alphaBetaValue(board, depth + 1, alpha, beta, true);
+            }
+            return value;
         }
     }
-    
+
+    /**
+     * Records move followed by the child's principal variation as the
+     * principal variation from this ply
+     */
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int childLength = Math.max(pvLength[ply + 1], ply + 1);
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, childLength - ply - 1);
+        pvLength[ply] = childLength;
+    }
+
     /**
-     * Order moves to improve pruning efficiency. 
-     * Strategy: center first, then by heuristic value
+     * Moves the given move to the front of the list, keeping the order of
+     * the others. Returns false if the move is not in the list.
      */
-    private List<Move> orderMoves(Board board, List<Move> moves) {
+    private static boolean promote(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rotates the first count moves left by shift places
+     */
+    private static void rotate(int[] moves, int count, int shift) {
+        reverse(moves, 0, shift);
+        reverse(moves, shift, count);
+        reverse(moves, 0, count);
+    }
+
+    private static void reverse(int[] moves, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int move = moves[i];
+            moves[i] = moves[j];
+            moves[j] = move;
+        }
+    }
+
+    /**
+     * Orders moves without generating children: the hash move first, then
+     * the two killers of this ply, then the rest by history score with
+     * closeness to the center as a tie-break. Sorts the move buffer in
+     * place using the parallel score buffer.
+     */
+    private void orderMoves(SearchBoard board, int[] moves, double[] scores, int count,
+                            int depth, int hashMove) {
         int m = board.getSize();
-        int center = m / 2;
-        
-        List<MoveScore> scoredMoves = new ArrayList<>();
-        
-        for (Move move : moves) {
-            double score = 0;
-            
-            // Prefer center
-            int distToCenter = Math.abs(move.getRow() - center) + Math.abs(move.getCol() - center);
-            score -= distToCenter;
-            
-            // Quick heuristic evaluation
-            Board newBoard = GameEngine.result(board, move);
-            score += HeuristicEvaluator.evaluate(newBoard) * 0.1;
-            
-            scoredMoves.add(new MoveScore(move, score));
-        }
-        
-        // Sort by score (descending), then lexicographically for ties
-        Collections.sort(scoredMoves, new Comparator<MoveScore>() {
-            @Override
-            public int compare(MoveScore ms1, MoveScore ms2) {
-                int scoreComp = Double.compare(ms2.score, ms1.score);
-                if (scoreComp != 0) return scoreComp;
-                return ms1.move.compareTo(ms2.move);
-            }
-        });
-        
-        List<Move> orderedMoves = new ArrayList<>();
-        for (MoveScore ms : scoredMoves) {
-            orderedMoves.add(ms.move);
-        }
-        
-        return orderedMoves;
-    }
-    
+        int[] centerDistance = LineGeometry.of(m, board.getWinCondition()).getCenterDistance();
+        int[] historyScores = history[board.getCurrentPlayer() == 'X' ? 0 : 1];
+        int[] killerSlots = killers[depth];
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            double score;
+            if (move == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if (move == killerSlots[0]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killerSlots[1]) {
+                score = KILLER_SCORE;
+            } else {
+                // Prefer center until the history table says otherwise
+                score = (double) historyScores[move] * m * 2 - centerDistance[move];
+            }
+            scores[i] = score;
+        }
+
+        // Insertion sort by score (descending); moves start in ascending cell
+        // order and the sort is stable, so ties stay lexicographic
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            double score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    /**
+     * Makes sure there is a move and score buffer for every ply of the search
+     */
+    private void ensureBuffers(int cellCount) {
+        if (moveBuffers == null || moveBuffers.length <= cellCount
+                || moveBuffers[0].length < cellCount) {
+            moveBuffers = new int[cellCount + 1][cellCount];
+            scoreBuffers = new double[cellCount + 1][cellCount];
+            pv = new int[cellCount + 2][cellCount + 1];
+            pvLength = new int[cellCount + 2];
+            previousPv = new int[cellCount + 1];
+            killers = new int[cellCount + 1][2];
+            history = new int[2][cellCount];
+        }
+    }
+
+    private static Move toMove(int cell, int m) {
+        return cell < 0 ? null : Move.ofCell(cell, m);
+    }
+
+    /**
+     * Nodes searched by the last search, summed over all threads
+     */
     public int getNodesExplored() {
         return nodesExplored;
     }
-    
+
     /**
-     * Helper class for move ordering
+     * Statistics of the last search: node and leaf counts, cutoffs by move
+     * index, table probes and hits, and per-depth nodes and timing
      */
-    private static class MoveScore {
-        Move move;
-        double score;
-        
-        MoveScore(Move move, double score) {
-            this.move = move;
-            this.score = score;
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Nodes searched by each thread in the last search. With Lazy SMP,
+     * entry 0 is the calling thread's main search; in deterministic mode
+     * entry i is the thread handling every threadCount-th root move from i.
+     */
+    public int[] getThreadNodes() {
+        return threadNodes.clone();
+    }
+
+    /**
+     * Sets how many threads a search uses, including the calling thread.
+     * Extra threads are daemon threads owned by this agent; setting the
+     * count back to 1 releases them.
+     */
+    public void setThreadCount(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
         }
+        threadCount = threads;
+        threadNodes = new int[threads];
+        helpers = null;
+        if (threads > 1) {
+            helpers = new AlphaBetaAgent[threads];
+            for (int i = 0; i < threads; i++) {
+                helpers[i] = new AlphaBetaAgent(maxDepth, useMoveOrdering, usePvs, null); // configured per search
+                helpers[i].helperIndex = i;
+            }
+            pool = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "alpha-beta-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * Chooses between Lazy SMP (false, the default) and the deterministic
+     * root-splitting search (true) for parallel searches
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Depth of the deepest completed iteration of the last search
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Value of the chosen move in the last completed iteration, from X's
+     * point of view; NaN if the move came from the opening book, which
+     * does not record values
+     */
+    public double getLastValue() {
+        return lastValue;
+    }
+
+    /**
+     * Replaces the transposition table, for example with a large
+     * OffHeapTranspositionTable for long analysis; null turns it off
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Sets a tablebase to look up endgame positions in instead of
+     * searching them; null turns it off. Positions it does not cover
+     * (other board sizes, too many empty cells) are searched as usual.
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Sets an opening book to play from before searching; null turns it
+     * off. Positions not in the book are searched as usual.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Sets a threat-space search to run before each search; null (the
+     * default) turns it off. If it finds a forced win for the player to
+     * move, its first move is played without searching.
+     */
+    public void setThreatSearch(ThreatSpaceSearch threatSearch) {
+        this.threatSearch = threatSearch;
+    }
+
+    /**
+     * Sets the strategy for the moves searched at each node, for example a
+     * ProximityMoveGenerator on large boards; MoveGenerator.ALL_EMPTY (the
+     * default) searches every empty cell
+     */
+    public void setMoveGenerator(MoveGenerator moveGenerator) {
+        if (moveGenerator == null) {
+            throw new IllegalArgumentException("Move generator must not be null");
+        }
+        this.moveGenerator = moveGenerator;
+    }
+
+    public MoveGenerator getMoveGenerator() {
+        return moveGenerator;
+    }
+
+    void setMoveOrdering(boolean useMoveOrdering) {
+        this.useMoveOrdering = useMoveOrdering;
+    }
+
+    void setPvs(boolean usePvs) {
+        this.usePvs = usePvs;
+    }
+
+    /**
+     * Enables or disables symmetry reduction of transposition table keys.
+     * Only transforms that leave heuristic scores unchanged are used on
+     * depth-limited searches (see Symmetry.searchTransforms).
+     */
+    public void setUseSymmetry(boolean useSymmetry) {
+        this.useSymmetry = useSymmetry;
     }
-}
\ No newline at end of file
+}
@@ -1,109 +1,242 @@
 package tictactoe;
 
-import java.util. Arrays;
+import java.util.Arrays;
 
 /**
  * Immutable board representation for Tic-Tac-Toe.
  * Supports m×m boards with k-in-a-row win condition.
+ *
+ * Cells are stored as bitboards indexed by row * m + col: one mask for X
+ * and one for O. Boards with up to 64 cells (8×8) use two plain longs;
+ * larger boards use one long[] word array per player.
  */
-public class Board {
+public class Board implements Position {
     private final int m; // board size
     private final int k; // win condition
-    private final char[][] grid;
+    private final long xBits; // X stones, boards up to 8×8
+    private final long oBits; // O stones, boards up to 8×8
+    private final long[] xWords; // X stones, larger boards (null otherwise)
+    private final long[] oWords; // O stones, larger boards (null otherwise)
     private final char currentPlayer;
     private final int moveCount;
-    
+    private final int lastCell; // cell of the last move, -1 on an empty board
+    private final char winner;  // ' ' while nobody has k in a row
+    private final long zobristKey;
+
     /**
      * Creates initial empty board
      */
     public Board(int m, int k) {
-        this. m = m;
-        this. k = k;
-        this. grid = new char[m][m];
-        for (int i = 0; i < m; i++) {
-            Arrays.fill(grid[i], ' ');
+        this.m = m;
+        this.k = k;
+        this.xBits = 0L;
+        this.oBits = 0L;
+        if (m * m > Long.SIZE) {
+            int words = (m * m + Long.SIZE - 1) / Long.SIZE;
+            this.xWords = new long[words];
+            this.oWords = new long[words];
+        } else {
+            this.xWords = null;
+            this.oWords = null;
         }
         this.currentPlayer = 'X';
         this.moveCount = 0;
+        this.lastCell = -1;
+        this.winner = ' ';
+        this.zobristKey = Zobrist.initialKey(m, k);
     }
-    
+
     /**
-     * Private constructor for creating new board states
+     * Private constructor for creating new board states.
+     * The winner is carried over, or detected from the lines through the
+     * last move, so it never has to be recomputed from the whole grid.
      */
-    private Board(int m, int k, char[][] grid, char currentPlayer, int moveCount) {
+    private Board(int m, int k, long xBits, long oBits, long[] xWords, long[] oWords,
+                  char currentPlayer, int moveCount, int lastCell, char previousWinner,
+                  long zobristKey) {
         this.m = m;
         this.k = k;
-        this.grid = new char[m][m];
-        for (int i = 0; i < m; i++) {
-            this.grid[i] = Arrays. copyOf(grid[i], m);
-        }
-        this. currentPlayer = currentPlayer;
+        this.xBits = xBits;
+        this.oBits = oBits;
+        this.xWords = xWords;
+        this.oWords = oWords;
+        this.currentPlayer = currentPlayer;
         this.moveCount = moveCount;
+        this.lastCell = lastCell;
+        this.zobristKey = zobristKey;
+        if (previousWinner == ' ' && GameEngine.completesLine(this, lastCell)) {
+            this.winner = getCell(lastCell);
+        } else {
+            this.winner = previousWinner;
+        }
     }
-    
+
     /**
      * Returns a new board with the move applied
      */
     public Board makeMove(Move move) {
-        if (grid[move.getRow()][move.getCol()] != ' ') {
+        checkBounds(move.getRow(), move.getCol());
+        return makeMove(move.getRow() * m + move.getCol());
+    }
+
+    /**
+     * Returns a new board with a stone placed on the given cell index
+     * (row * m + col)
+     */
+    public Board makeMove(int cell) {
+        if (cell < 0 || cell >= m * m) {
+            throw new IllegalArgumentException("Invalid move: cell " + cell + " is off the board");
+        }
+        if (!isEmpty(cell / m, cell % m)) {
             throw new IllegalArgumentException("Invalid move: cell already occupied");
         }
-        
-        char[][] newGrid = new char[m][m];
-        for (int i = 0; i < m; i++) {
-            newGrid[i] = Arrays.copyOf(grid[i], m);
+
+        char nextPlayer = (currentPlayer == 'X') ? 'O' : 'X';
+        long newKey = zobristKey ^ Zobrist.stoneKey(m, currentPlayer, cell);
+
+        if (xWords == null) {
+            long bit = 1L << cell;
+            long newX = (currentPlayer == 'X') ? xBits | bit : xBits;
+            long newO = (currentPlayer == 'O') ? oBits | bit : oBits;
+            return new Board(m, k, newX, newO, null, null, nextPlayer, moveCount + 1, cell, winner,
+                    newKey);
+        }
+
+        // Only the mover's word array changes; the other one can be shared
+        long[] newX = xWords;
+        long[] newO = oWords;
+        if (currentPlayer == 'X') {
+            newX = xWords.clone();
+            newX[cell >>> 6] |= 1L << cell;
+        } else {
+            newO = oWords.clone();
+            newO[cell >>> 6] |= 1L << cell;
         }
-        newGrid[move.getRow()][move.getCol()] = currentPlayer;
-        
-        char nextPlayer = (currentPlayer == 'X') ?  'O' : 'X';
-        return new Board(m, k, newGrid, nextPlayer, moveCount + 1);
+        return new Board(m, k, 0L, 0L, newX, newO, nextPlayer, moveCount + 1, cell, winner,
+                    newKey);
     }
-    
+
     public int getSize() {
         return m;
     }
-    
+
     public int getWinCondition() {
         return k;
     }
-    
+
     public char getCurrentPlayer() {
         return currentPlayer;
     }
-    
+
     public char getCell(int row, int col) {
-        return grid[row][col];
+        checkBounds(row, col);
+        return getCell(row * m + col);
     }
-    
+
+    /**
+     * Mark at the cell index row * m + col, for loops over cell index
+     * tables; the index is not checked
+     */
+    public char getCell(int cell) {
+        if (xWords == null) {
+            if ((xBits >>> cell & 1L) != 0) return 'X';
+            if ((oBits >>> cell & 1L) != 0) return 'O';
+            return ' ';
+        }
+        if ((xWords[cell >>> 6] >>> cell & 1L) != 0) return 'X';
+        if ((oWords[cell >>> 6] >>> cell & 1L) != 0) return 'O';
+        return ' ';
+    }
+
     public int getMoveCount() {
         return moveCount;
     }
-    
+
     public boolean isEmpty(int row, int col) {
-        return grid[row][col] == ' ';
+        checkBounds(row, col);
+        int cell = row * m + col;
+        if (xWords == null) {
+            return ((xBits | oBits) >>> cell & 1L) == 0;
+        }
+        return ((xWords[cell >>> 6] | oWords[cell >>> 6]) >>> cell & 1L) == 0;
     }
-    
+
     public boolean isFull() {
         return moveCount == m * m;
     }
-    
+
+    /**
+     * Rejects coordinates off the board, which would otherwise alias
+     * another cell's bit
+     */
+    private void checkBounds(int row, int col) {
+        if (row < 0 || row >= m || col < 0 || col >= m) {
+            throw new IllegalArgumentException("Invalid position: (" + row + ", " + col + ") is off the board");
+        }
+    }
+
+    /**
+     * Writes the indices of the empty cells into buffer in ascending
+     * order and returns how many there are
+     */
+    public int emptyCells(int[] buffer) {
+        int cellCount = m * m;
+        int count = 0;
+        int words = xWords == null ? 1 : xWords.length;
+        for (int w = 0; w < words; w++) {
+            long empty = xWords == null ? ~(xBits | oBits) : ~(xWords[w] | oWords[w]);
+            if (w == words - 1 && (cellCount & 63) != 0) {
+                empty &= (1L << cellCount) - 1;
+            }
+            while (empty != 0) {
+                buffer[count++] = (w << 6) + Long.numberOfTrailingZeros(empty);
+                empty &= empty - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the winner ('X' or 'O'), or null if nobody has k in a row yet
+     */
+    public Character getWinner() {
+        return winner == ' ' ? null : winner;
+    }
+
+    /**
+     * Returns the 64-bit Zobrist key of this position.
+     * It is updated incrementally by makeMove and identical for equal boards.
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Returns the last move played, or null on an empty board
+     */
+    public Move getLastMove() {
+        return lastCell < 0 ? null : Move.ofCell(lastCell, m);
+    }
+
     /**
      * Creates a deep copy of the grid
      */
     public char[][] getGridCopy() {
         char[][] copy = new char[m][m];
         for (int i = 0; i < m; i++) {
-            copy[i] = Arrays.copyOf(grid[i], m);
+            for (int j = 0; j < m; j++) {
+                copy[i][j] = getCell(i, j);
+            }
         }
         return copy;
     }
-    
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < m; i++) {
             for (int j = 0; j < m; j++) {
-                sb.append(grid[i][j]);
+                sb.append(getCell(i, j));
                 if (j < m - 1) sb.append("|");
             }
             sb.append("\n");
@@ -112,24 +245,26 @@ public class Board {
                     sb.append("-");
                     if (j < m - 1) sb.append("+");
                 }
-                sb. append("\n");
+                sb.append("\n");
             }
         }
         return sb.toString();
     }
-    
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (!(obj instanceof Board)) return false;
         Board other = (Board) obj;
-        return m == other.m && k == other.k && 
+        return m == other.m && k == other.k &&
                currentPlayer == other.currentPlayer &&
-               Arrays.deepEquals(grid, other. grid);
+               xBits == other.xBits && oBits == other.oBits &&
+               Arrays.equals(xWords, other.xWords) &&
+               Arrays.equals(oWords, other.oWords);
     }
-    
+
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(grid) * 31 + currentPlayer;
+        return Long.hashCode(zobristKey);
     }
-}
\ No newline at end of file
+}
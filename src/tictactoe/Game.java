@@ -7,6 +7,9 @@ import java.util.Scanner;
  */
 public class Game {
 
+    // Per-move thinking time on boards larger than 3×3
+    private static final long AI_TIME_LIMIT_MS = 2000;
+
     public static void main(String[] args) {
         Scanner scanner = new Scanner(System. in);
 
@@ -39,7 +42,14 @@ public class Game {
         char humanPlayer = scanner.next().toUpperCase().charAt(0);
 
         Board board = GameEngine.initialState(m, k);
-        AlphaBetaAgent agent = new AlphaBetaAgent(m > 3 ? 6 : Integer.MAX_VALUE, true);
+        // 3×3 is solved outright; larger boards deepen until the time budget is spent
+        AlphaBetaAgent agent = new AlphaBetaAgent();
+        // Opening moves come from the book in books/, if one was built for this board
+        agent.setOpeningBook(OpeningBook.find(m, k));
+        // Forcing wins (continuous fours) can run far deeper than the search reaches
+        if (k >= 4) {
+            agent.setThreatSearch(new ThreatSpaceSearch());
+        }
 
         System.out.println("\n*** Board positions are numbered from 1 to " + m + " ***");
         System. out.println("*** Example: For a 3x3 board, enter '1 1' for top-left, '3 3' for bottom-right ***\n");
@@ -63,7 +73,7 @@ public class Game {
                     continue;
                 }
 
-                Move move = new Move(arrayRow, arrayCol);
+                Move move = Move.of(arrayRow, arrayCol);
 
                 if (! GameEngine.actions(board). contains(move)) {
                     System.out.println("Invalid move! That cell is already occupied.");
@@ -75,7 +85,7 @@ public class Game {
             } else {
                 System.out.println("AI is thinking...");
                 long start = System.currentTimeMillis();
-                Move aiMove = agent.alphaBeta(board);
+                Move aiMove = (m > 3) ? agent.alphaBeta(board, AI_TIME_LIMIT_MS) : agent.alphaBeta(board);
                 long time = System.currentTimeMillis() - start;
 
                 // Convert from 0-based (array index) to 1-based (user display)
@@ -83,7 +93,9 @@ public class Game {
                 int displayCol = aiMove.getCol() + 1;
 
                 System.out.println("AI chose: (" + displayRow + ", " + displayCol + ") " +
-                        "(time: " + time + "ms, nodes: " + agent.getNodesExplored() + ")");
+                        "(time: " + time + "ms, depth: " + agent.getCompletedDepth() +
+                        ", nodes: " + agent.getNodesExplored() +
+                        String.format(", %.0f nodes/s)", agent.getStats().getNodesPerSecond()));
                 board = GameEngine.result(board, aiMove);
             }
         }
@@ -159,6 +171,9 @@ public class Game {
         Board board = GameEngine.initialState(3, 3);
         AlphaBetaAgent agentX = new AlphaBetaAgent();
         AlphaBetaAgent agentO = new AlphaBetaAgent();
+        OpeningBook book = OpeningBook.find(3, 3);
+        agentX.setOpeningBook(book);
+        agentO.setOpeningBook(book);
 
         System.out.println("AI vs AI (3x3)");
 
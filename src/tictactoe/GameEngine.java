@@ -27,17 +27,25 @@ public class GameEngine {
      * Returns list of all legal moves
      */
     public static List<Move> actions(Board board) {
-        List<Move> moves = new ArrayList<>();
         int m = board.getSize();
-        for (int i = 0; i < m; i++) {
-            for (int j = 0; j < m; j++) {
-                if (board.isEmpty(i, j)) {
-                    moves.add(new Move(i, j));
-                }
-            }
+        int[] cells = new int[m * m];
+        int count = board.emptyCells(cells);
+        List<Move> moves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moves.add(Move.ofCell(cells[i], m));
         }
         return moves;
     }
+
+    /**
+     * Writes all legal moves into buffer as cell indices (row * m + col),
+     * in the same order as actions(board), and returns how many there
+     * are. The buffer needs room for m * m cells; reusing it avoids the
+     * list and Move objects of actions(board).
+     */
+    public static int actions(Board board, int[] buffer) {
+        return board.emptyCells(buffer);
+    }
     
     /**
      * Returns new board state after applying action
@@ -50,69 +58,50 @@ public class GameEngine {
      * Returns winner ('X', 'O', or null if no winner)
      */
     public static Character winner(Board board) {
-        int m = board.getSize();
-        int k = board.getWinCondition();
-        
-        // Check rows
-        for (int i = 0; i < m; i++) {
-            Character rowWinner = checkLine(board, i, 0, 0, 1, k);
-            if (rowWinner != null) return rowWinner;
-        }
-        
-        // Check columns
-        for (int j = 0; j < m; j++) {
-            Character colWinner = checkLine(board, 0, j, 1, 0, k);
-            if (colWinner != null) return colWinner;
-        }
-        
-        // Check diagonals (all possible k-length diagonals)
-        // Top-left to bottom-right diagonals
-        for (int i = 0; i <= m - k; i++) {
-            for (int j = 0; j <= m - k; j++) {
-                Character diagWinner = checkLine(board, i, j, 1, 1, k);
-                if (diagWinner != null) return diagWinner;
-            }
-        }
-        
-        // Top-right to bottom-left diagonals
-        for (int i = 0; i <= m - k; i++) {
-            for (int j = k - 1; j < m; j++) {
-                Character diagWinner = checkLine(board, i, j, 1, -1, k);
-                if (diagWinner != null) return diagWinner;
-            }
-        }
-        
-        return null;
+        return board.getWinner();
     }
-    
+
     /**
-     * Helper method to check a line for k-in-a-row
+     * Winner check shared by Board and SearchBoard.
+     * Both record the winner when the winning move is played, so this is O(1).
      */
-    private static Character checkLine(Board board, int startRow, int startCol, 
-                                       int dRow, int dCol, int k) {
-        int m = board.getSize();
-        int row = startRow;
-        int col = startCol;
-        
-        char first = board.getCell(row, col);
-        if (first == ' ') return null;
-        
-        int count = 1;
-        for (int i = 1; i < k; i++) {
-            row += dRow;
-            col += dCol;
-            if (row < 0 || row >= m || col < 0 || col >= m) return null;
-            if (board. getCell(row, col) != first) return null;
-            count++;
+    static Character winner(Position board) {
+        return board.getWinner();
+    }
+
+    /**
+     * Returns true if the mark at the cell index is part of k in a row.
+     * Only the precomputed windows through that cell are examined.
+     * Boards call it for the last move played.
+     */
+    static boolean completesLine(Position board, int cell) {
+        char mark = board.getCell(cell);
+        if (mark == ' ') return false;
+
+        int k = board.getWinCondition();
+        LineGeometry geometry = LineGeometry.of(board.getSize(), k);
+        int[] cells = geometry.getWindowCells();
+        for (int w : geometry.windowsThrough(cell)) {
+            int i = w * k;
+            int end = i + k;
+            while (i < end && board.getCell(cells[i]) == mark) {
+                i++;
+            }
+            if (i == end) {
+                return true;
+            }
         }
-        
-        return (count == k) ? first : null;
+        return false;
     }
     
     /**
      * Returns true if game is over (win, loss, or draw)
      */
     public static boolean terminal(Board board) {
+        return terminal((Position) board);
+    }
+
+    static boolean terminal(Position board) {
         return winner(board) != null || board.isFull();
     }
     
@@ -120,6 +109,10 @@ public class GameEngine {
      * Returns utility: +1 if X wins, -1 if O wins, 0 if draw, null otherwise
      */
     public static Integer utility(Board board) {
+        return utility((Position) board);
+    }
+
+    static Integer utility(Position board) {
         Character w = winner(board);
         if (w != null) {
             return (w == 'X') ? 1 : -1;
@@ -0,0 +1,48 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * Transposition table held in two flat long arrays on the Java heap.
+ * This is the default table of the search agents.
+ */
+public class HeapTranspositionTable extends PackedTranspositionTable {
+    private final long[] keys; // key ^ data of each entry
+    private final long[] data;
+
+    public HeapTranspositionTable() {
+        this(DEFAULT_ENTRIES, ReplacementPolicy.TWO_TIER);
+    }
+
+    /**
+     * Creates a table holding the given number of entries, rounded down to
+     * a power of two
+     */
+    public HeapTranspositionTable(int entries, ReplacementPolicy policy) {
+        super(slotCount(entries), policy);
+        this.keys = new long[getCapacity()];
+        this.data = new long[getCapacity()];
+    }
+
+    @Override
+    long keyWord(int slot) {
+        return keys[slot];
+    }
+
+    @Override
+    long dataWord(int slot) {
+        return data[slot];
+    }
+
+    @Override
+    void write(int slot, long keyWord, long dataWord) {
+        keys[slot] = keyWord;
+        data[slot] = dataWord;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+}
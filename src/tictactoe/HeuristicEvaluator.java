@@ -1,10 +1,17 @@
 package tictactoe;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Heuristic evaluation function for non-terminal board positions.
  * Used for depth-limited search on larger boards.
+ *
+ * A SearchBoard keeps the per-window counts and the running score itself,
+ * so evaluating one during search is a constant-time read. The windows
+ * scored are the first LineGeometry.getScoredCount() windows.
  */
 public class HeuristicEvaluator {
+    private static final ConcurrentHashMap<Integer, double[]> POWERS = new ConcurrentHashMap<>();
     
     /**
      * Evaluates board position from X's perspective. 
@@ -16,6 +23,18 @@ public class HeuristicEvaluator {
      * - Partial patterns (2-in-a-row, 3-in-a-row, etc.)
      */
     public static double evaluate(Board board) {
+        return evaluate((Position) board);
+    }
+
+    /**
+     * Same score as evaluate(Position), read from the board's incrementally
+     * maintained window counts
+     */
+    static double evaluate(SearchBoard board) {
+        return board.getHeuristicScore();
+    }
+
+    static double evaluate(Position board) {
         Character winner = GameEngine.winner(board);
         if (winner != null) {
             return (winner == 'X') ? 10000 : -10000;
@@ -24,66 +43,33 @@ public class HeuristicEvaluator {
             return 0;
         }
         
-        int m = board.getSize();
         int k = board.getWinCondition();
+        LineGeometry geometry = LineGeometry.of(board.getSize(), k);
+        int[] cells = geometry.getWindowCells();
+        double[] powers = powers(k);
         
         double score = 0;
         
-        // Evaluate all possible lines
-        // Rows
-        for (int i = 0; i < m; i++) {
-            score += evaluateLine(board, i, 0, 0, 1, k);
-        }
-        
-        // Columns
-        for (int j = 0; j < m; j++) {
-            score += evaluateLine(board, 0, j, 1, 0, k);
-        }
-        
-        // Diagonals (top-left to bottom-right)
-        for (int i = 0; i <= m - k; i++) {
-            for (int j = 0; j <= m - k; j++) {
-                score += evaluateLine(board, i, j, 1, 1, k);
-            }
-        }
-        
-        // Diagonals (top-right to bottom-left)
-        for (int i = 0; i <= m - k; i++) {
-            for (int j = k - 1; j < m; j++) {
-                score += evaluateLine(board, i, j, 1, -1, k);
+        // Evaluate the scored windows: rows, columns, then both diagonals
+        for (int w = 0, scored = geometry.getScoredCount(); w < scored; w++) {
+            int xCount = 0;
+            int oCount = 0;
+            for (int i = w * k, end = i + k; i < end; i++) {
+                char cell = board.getCell(cells[i]);
+                if (cell == 'X') xCount++;
+                else if (cell == 'O') oCount++;
             }
+            score += windowScore(xCount, oCount, powers);
         }
         
         return score;
     }
     
     /**
-     * Evaluates a single line (row, column, or diagonal segment of length k)
+     * Score of one window from its mark counts: 10^n for n marks of a
+     * single player (negative for O), 0 if empty or blocked
      */
-    private static double evaluateLine(Board board, int startRow, int startCol,
-                                       int dRow, int dCol, int k) {
-        int m = board.getSize();
-        int xCount = 0;
-        int oCount = 0;
-        int emptyCount = 0;
-        
-        int row = startRow;
-        int col = startCol;
-        
-        for (int i = 0; i < k; i++) {
-            if (row < 0 || row >= m || col < 0 || col >= m) {
-                return 0;
-            }
-            
-            char cell = board.getCell(row, col);
-            if (cell == 'X') xCount++;
-            else if (cell == 'O') oCount++;
-            else emptyCount++;
-            
-            row += dRow;
-            col += dCol;
-        }
-        
+    static double windowScore(int xCount, int oCount, double[] powers) {
         // If both players have marks in this line, it's not valuable
         if (xCount > 0 && oCount > 0) {
             return 0;
@@ -91,11 +77,24 @@ public class HeuristicEvaluator {
         
         // Score based on potential
         if (xCount > 0) {
-            return Math.pow(10, xCount);
+            return powers[xCount];
         } else if (oCount > 0) {
-            return -Math.pow(10, oCount);
+            return -powers[oCount];
         }
         
         return 0;
     }
+
+    /**
+     * Powers of ten up to 10^k, so windowScore avoids Math.pow
+     */
+    static double[] powers(int k) {
+        return POWERS.computeIfAbsent(k, n -> {
+            double[] powers = new double[n + 1];
+            for (int i = 0; i <= n; i++) {
+                powers[i] = Math.pow(10, i);
+            }
+            return powers;
+        });
+    }
 }
\ No newline at end of file
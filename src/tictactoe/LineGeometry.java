@@ -0,0 +1,157 @@
+package tictactoe;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed k-windows of an m×m board.
+ * A window is k consecutive cells along a row, column, diagonal or
+ * anti-diagonal. The cells of window w are stored flat at
+ * windowCells[w * k .. w * k + k), and every cell lists the windows
+ * through it, so win detection and evaluation walk plain arrays instead of
+ * stepping along directions with bounds checks.
+ *
+ * Windows 0 .. scoredCount - 1 are the ones HeuristicEvaluator scores, in
+ * the order it adds them up: rows from column 0, columns from row 0, then
+ * every diagonal and anti-diagonal window. The remaining row and column
+ * windows follow; they only matter for win detection.
+ *
+ * One instance per (m, k) is built on first use and shared by all threads.
+ */
+final class LineGeometry {
+    private static final ConcurrentHashMap<Long, LineGeometry> CACHE = new ConcurrentHashMap<>();
+
+    private final int m;
+    private final int k;
+    private final int windowCount;
+    private final int scoredCount;
+    private final int[] windowCells;
+    private final int[][] windowsByCell;
+    private final int[] centerDistance;
+
+    /**
+     * Returns the geometry of an m×m board with win condition k
+     */
+    static LineGeometry of(int m, int k) {
+        return CACHE.computeIfAbsent((long) m << 32 | k, key -> new LineGeometry(m, k));
+    }
+
+    private LineGeometry(int m, int k) {
+        this.m = m;
+        this.k = k;
+
+        int span = m - k + 1; // window start positions along one line
+        if (span <= 0) {
+            // k > m: nothing fits, nobody can win
+            this.scoredCount = 0;
+            this.windowCount = 0;
+        } else {
+            this.scoredCount = 2 * m + 2 * span * span;
+            this.windowCount = 2 * m * span + 2 * span * span;
+        }
+        this.windowCells = new int[windowCount * k];
+
+        int w = 0;
+        if (span > 0) {
+            // Scored windows, in HeuristicEvaluator's order
+            for (int row = 0; row < m; row++) {
+                w = addWindow(w, row, 0, 0, 1);
+            }
+            for (int col = 0; col < m; col++) {
+                w = addWindow(w, 0, col, 1, 0);
+            }
+            for (int row = 0; row < span; row++) {
+                for (int col = 0; col < span; col++) {
+                    w = addWindow(w, row, col, 1, 1);
+                }
+            }
+            for (int row = 0; row < span; row++) {
+                for (int col = k - 1; col < m; col++) {
+                    w = addWindow(w, row, col, 1, -1);
+                }
+            }
+            // Row and column windows that do not start at the edge
+            for (int row = 0; row < m; row++) {
+                for (int col = 1; col < span; col++) {
+                    w = addWindow(w, row, col, 0, 1);
+                }
+            }
+            for (int row = 1; row < span; row++) {
+                for (int col = 0; col < m; col++) {
+                    w = addWindow(w, row, col, 1, 0);
+                }
+            }
+        }
+
+        // Invert: windows through each cell, in ascending window order
+        int cellCount = m * m;
+        int[] sizes = new int[cellCount];
+        for (int cell : windowCells) {
+            sizes[cell]++;
+        }
+        this.windowsByCell = new int[cellCount][];
+        for (int cell = 0; cell < cellCount; cell++) {
+            windowsByCell[cell] = new int[sizes[cell]];
+            sizes[cell] = 0;
+        }
+        for (int i = 0; i < windowCells.length; i++) {
+            int cell = windowCells[i];
+            windowsByCell[cell][sizes[cell]++] = i / k;
+        }
+
+        this.centerDistance = new int[cellCount];
+        int center = m / 2;
+        for (int cell = 0; cell < cellCount; cell++) {
+            centerDistance[cell] = Math.abs(cell / m - center) + Math.abs(cell % m - center);
+        }
+    }
+
+    private int addWindow(int w, int row, int col, int dRow, int dCol) {
+        for (int i = 0; i < k; i++) {
+            windowCells[w * k + i] = (row + i * dRow) * m + col + i * dCol;
+        }
+        return w + 1;
+    }
+
+    int getSize() {
+        return m;
+    }
+
+    int getWinCondition() {
+        return k;
+    }
+
+    /**
+     * Number of windows on the board
+     */
+    int getWindowCount() {
+        return windowCount;
+    }
+
+    /**
+     * Number of windows scored by HeuristicEvaluator; they come first
+     */
+    int getScoredCount() {
+        return scoredCount;
+    }
+
+    /**
+     * Cells of all windows, k per window: window w at [w * k, w * k + k)
+     */
+    int[] getWindowCells() {
+        return windowCells;
+    }
+
+    /**
+     * Windows containing the given cell, in ascending order
+     */
+    int[] windowsThrough(int cell) {
+        return windowsByCell[cell];
+    }
+
+    /**
+     * Manhattan distance of each cell from the center cell
+     */
+    int[] getCenterDistance() {
+        return centerDistance;
+    }
+}
@@ -0,0 +1,345 @@
+package tictactoe;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo Tree Search with UCT selection.
+ * Meant for large boards (7×7 and up) where AlphaBetaAgent's heuristic
+ * search cannot reach a useful depth.
+ *
+ * Each playout walks down the tree choosing the child with the best UCB1
+ * score, adds one new node, plays uniformly random moves on a SearchBoard
+ * until the game ends, and backs the result up the path (1 for a win of
+ * the player who moved into a node, 0.5 for a draw, 0 for a loss). The
+ * most visited root move is played.
+ *
+ * A search runs either a fixed number of playouts (mcts(board)) or until
+ * a time budget runs out (mcts(board, timeLimitMillis)). With more than
+ * one thread (setThreadCount) the search is root-parallel: every thread
+ * grows its own tree from the root with its own random stream, and the
+ * root visit counts are summed before choosing the move.
+ */
+public class MctsAgent {
+    private static final int DEFAULT_PLAYOUTS = 20_000;
+    private static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+    private static final int TIME_CHECK_INTERVAL = 64; // playouts between clock reads
+    private static final long UNLIMITED = Long.MAX_VALUE;
+
+    private int playoutBudget;
+    private double exploration;
+    private long seed;
+    private MoveGenerator moveGenerator; // moves a node is expanded with
+    private int threadCount;
+    private ExecutorService pool;      // threadCount - 1 daemon threads
+    private long playouts;             // playouts run by the last search, all threads
+    private long elapsedNanos;         // duration of the last search
+
+    /**
+     * Tree node; wins and visits are from the point of view of the player
+     * whose move led to the node
+     */
+    private static final class Node {
+        final Node parent;
+        final int move;      // cell played to reach this node, -1 at the root
+        final char player;   // player who played move
+        int[] untried;       // moves not yet expanded; null until first expanded
+        int untriedCount;
+        Node[] children;
+        int childCount;
+        int visits;
+        double wins;
+
+        Node(Node parent, int move, char player) {
+            this.parent = parent;
+            this.move = move;
+            this.player = player;
+        }
+    }
+
+    public MctsAgent() {
+        this(DEFAULT_PLAYOUTS);
+    }
+
+    public MctsAgent(int playoutBudget) {
+        if (playoutBudget < 1) {
+            throw new IllegalArgumentException("Playout budget must be at least 1");
+        }
+        this.playoutBudget = playoutBudget;
+        this.exploration = DEFAULT_EXPLORATION;
+        this.seed = 0x5DEECE66DL;
+        this.moveGenerator = MoveGenerator.ALL_EMPTY;
+        this.threadCount = 1;
+    }
+
+    /**
+     * Returns the most visited move after the agent's playout budget
+     */
+    public Move mcts(Board board) {
+        return search(board, playoutBudget, UNLIMITED);
+    }
+
+    /**
+     * Returns the most visited move after playing out until the time
+     * budget runs out. At least one playout per root move is always run.
+     */
+    public Move mcts(Board board, long timeLimitMillis) {
+        return search(board, Integer.MAX_VALUE, System.nanoTime() + timeLimitMillis * 1_000_000L);
+    }
+
+    private Move search(Board board, int budget, long deadline) {
+        long start = System.nanoTime();
+        playouts = 0;
+        elapsedNanos = 0;
+        if (GameEngine.terminal(board)) {
+            return null;
+        }
+
+        int m = board.getSize();
+        int cellCount = m * m;
+        int[] visits = new int[cellCount];
+        long[] threadPlayouts = new long[threadCount];
+
+        // Split the playout budget between the threads
+        Future<?>[] futures = new Future<?>[threadCount];
+        for (int i = 1; i < threadCount; i++) {
+            int thread = i;
+            int share = budget / threadCount;
+            futures[i] = pool.submit(() -> {
+                Node root = grow(board, share, deadline, thread, threadPlayouts);
+                addRootVisits(root, visits);
+            });
+        }
+        Node root = grow(board, budget - (budget / threadCount) * (threadCount - 1), deadline, 0,
+                         threadPlayouts);
+        addRootVisits(root, visits);
+        for (int i = 1; i < threadCount; i++) {
+            await(futures[i]);
+        }
+
+        // Most visited move; ties go to the lowest cell
+        int bestMove = -1;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (visits[cell] > 0 && (bestMove < 0 || visits[cell] > visits[bestMove])) {
+                bestMove = cell;
+            }
+        }
+        for (long count : threadPlayouts) {
+            playouts += count;
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return Move.ofCell(bestMove, m);
+    }
+
+    /**
+     * Grows one tree from the root by running playouts until the budget or
+     * the deadline is reached, and returns its root
+     */
+    private Node grow(Board board, int budget, long deadline, int thread, long[] threadPlayouts) {
+        SearchBoard search = new SearchBoard(board);
+        SplittableRandom random = new SplittableRandom(seed + thread * 0x9E3779B97F4A7C15L);
+        int[] empties = new int[search.getCellCount()];
+        char rootMover = search.getCurrentPlayer() == 'X' ? 'O' : 'X';
+        Node root = new Node(null, -1, rootMover);
+        int rootMoves = search.getCellCount() - search.getMoveCount();
+
+        int count = 0;
+        while (count < budget) {
+            playout(root, search, random, empties);
+            count++;
+            if (deadline != UNLIMITED && count % TIME_CHECK_INTERVAL == 0 && count >= rootMoves
+                    && System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+        threadPlayouts[thread] = count;
+        return root;
+    }
+
+    /**
+     * One iteration of selection, expansion, simulation and backpropagation.
+     * The board is returned to the root position afterwards.
+     */
+    private void playout(Node root, SearchBoard board, SplittableRandom random, int[] empties) {
+        int played = 0;
+        Node node = root;
+
+        // Selection: descend through fully expanded nodes
+        while (board.getWinner() == null && !board.isFull()) {
+            if (node.untried == null) {
+                node.untried = new int[board.getCellCount() - board.getMoveCount()];
+                node.untriedCount = moveGenerator.generate(board, node.untried);
+                node.children = new Node[node.untriedCount];
+            }
+            if (node.untriedCount > 0) {
+                // Expansion: add one random untried move
+                int pick = random.nextInt(node.untriedCount);
+                int move = node.untried[pick];
+                node.untried[pick] = node.untried[--node.untriedCount];
+                Node child = new Node(node, move, board.getCurrentPlayer());
+                node.children[node.childCount++] = child;
+                board.play(move);
+                played++;
+                node = child;
+                break;
+            }
+            node = select(node);
+            board.play(node.move);
+            played++;
+        }
+
+        // Simulation: uniformly random moves to the end of the game
+        int emptyCount = board.emptyCells(empties);
+        while (board.getWinner() == null && emptyCount > 0) {
+            int pick = random.nextInt(emptyCount);
+            int move = empties[pick];
+            empties[pick] = empties[--emptyCount];
+            board.play(move);
+            played++;
+        }
+        Character winner = board.getWinner();
+
+        // Backpropagation
+        for (Node n = node; n != null; n = n.parent) {
+            n.visits++;
+            if (winner == null) {
+                n.wins += 0.5;
+            } else if (winner == n.player) {
+                n.wins += 1;
+            }
+        }
+        for (int i = 0; i < played; i++) {
+            board.undo();
+        }
+    }
+
+    /**
+     * Child with the highest UCB1 score
+     */
+    private Node select(Node node) {
+        double logVisits = Math.log(node.visits);
+        Node best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < node.childCount; i++) {
+            Node child = node.children[i];
+            double score = child.wins / child.visits
+                    + exploration * Math.sqrt(logVisits / child.visits);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private static void addRootVisits(Node root, int[] visits) {
+        synchronized (visits) {
+            for (int i = 0; i < root.childCount; i++) {
+                visits[root.children[i].move] += root.children[i].visits;
+            }
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search thread", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search thread failed", e.getCause());
+        }
+    }
+
+    /**
+     * Playouts run by the last search, summed over all threads
+     */
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * Playout rate of the last search, over all threads
+     */
+    public double getPlayoutsPerSecond() {
+        return elapsedNanos == 0 ? 0 : playouts * 1e9 / elapsedNanos;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Sets the number of playouts mcts(board) runs, split between threads
+     */
+    public void setPlayoutBudget(int playoutBudget) {
+        if (playoutBudget < 1) {
+            throw new IllegalArgumentException("Playout budget must be at least 1");
+        }
+        this.playoutBudget = playoutBudget;
+    }
+
+    public int getPlayoutBudget() {
+        return playoutBudget;
+    }
+
+    /**
+     * Sets the UCB1 exploration constant (sqrt(2) by default)
+     */
+    public void setExploration(double exploration) {
+        if (!(exploration >= 0)) {
+            throw new IllegalArgumentException("Exploration constant must be non-negative");
+        }
+        this.exploration = exploration;
+    }
+
+    /**
+     * Sets the strategy for the moves a tree node is expanded with, for
+     * example a ProximityMoveGenerator on large boards. Playouts still
+     * choose among all empty cells.
+     */
+    public void setMoveGenerator(MoveGenerator moveGenerator) {
+        if (moveGenerator == null) {
+            throw new IllegalArgumentException("Move generator must not be null");
+        }
+        this.moveGenerator = moveGenerator;
+    }
+
+    /**
+     * Seeds the random playouts; a single-threaded search with a playout
+     * budget is then reproducible
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets how many threads a search uses, including the calling thread.
+     * Extra threads are daemon threads owned by this agent; setting the
+     * count back to 1 releases them.
+     */
+    public void setThreadCount(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+        threadCount = threads;
+        if (threads > 1) {
+            pool = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "mcts-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+}
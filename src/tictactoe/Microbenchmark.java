@@ -0,0 +1,108 @@
+package tictactoe;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Minimal microbenchmark harness in the style of JMH.
+ *
+ * An operation is run in timed iterations: warmup iterations first, so the
+ * JIT has compiled the code being measured, then measurement iterations
+ * whose throughput is averaged. Results are passed to a sink so the JIT
+ * cannot drop the work. Allocation per operation is read from the
+ * thread's allocation counter (the figure JMH's GC profiler reports as
+ * gc.alloc.rate.norm).
+ *
+ * Forking, i.e. running each benchmark in a fresh JVM, is done by
+ * PerformanceBenchmark.
+ */
+final class Microbenchmark {
+
+    /**
+     * Outcome of one benchmark
+     */
+    static final class Result {
+        final String name;
+        final double opsPerSecond; // mean over measurement iterations
+        final double error;        // half-width of the ~99% confidence interval
+        final double bytesPerOp;
+
+        Result(String name, double opsPerSecond, double error, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.error = error;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+
+    private static volatile Object sink; // keeps results observable
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final com.sun.management.ThreadMXBean threads;
+
+    Microbenchmark(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    /**
+     * Runs the operation through warmup and measurement and returns the
+     * measured throughput and allocation
+     */
+    Result run(String name, Supplier<?> operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(operation, null);
+        }
+
+        double[] throughput = new double[measurementIterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        long[] counters = new long[2];
+        for (int i = 0; i < measurementIterations; i++) {
+            throughput[i] = iteration(operation, counters);
+            totalOps += counters[0];
+            totalBytes += counters[1];
+        }
+
+        double mean = 0;
+        for (double value : throughput) {
+            mean += value;
+        }
+        mean /= measurementIterations;
+        double variance = 0;
+        for (double value : throughput) {
+            variance += (value - mean) * (value - mean);
+        }
+        double error = measurementIterations > 1
+                ? 2.58 * Math.sqrt(variance / (measurementIterations - 1) / measurementIterations)
+                : 0;
+        return new Result(name, mean, error, totalOps == 0 ? 0 : (double) totalBytes / totalOps);
+    }
+
+    /**
+     * Runs the operation for one iteration and returns operations per
+     * second; stores the operation count and allocated bytes in counters
+     */
+    private double iteration(Supplier<?> operation, long[] counters) {
+        long ops = 0;
+        long startBytes = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink = operation.get();
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        long bytes = threads.getCurrentThreadAllocatedBytes() - startBytes;
+
+        if (counters != null) {
+            counters[0] = ops;
+            counters[1] = bytes;
+        }
+        return ops * 1e9 / elapsed;
+    }
+}
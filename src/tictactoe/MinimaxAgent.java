@@ -1,93 +1,159 @@
 package tictactoe;
 
-import java. util.Collections;
-import java.util.List;
-
 /**
  * Plain Minimax algorithm implementation.
- * Used as oracle for 3×3 boards.
+ * Used as oracle for 3×3 boards. PerfectPlay holds the moves it picks for
+ * every 3×3 position, for checks that need them without the search.
+ *
+ * When memoized, exact values are remembered under the canonical key of
+ * each position, so positions equal up to symmetry or reached by a
+ * different move order are solved once and reused across calls.
  */
 public class MinimaxAgent {
     private int nodesExplored;
-    
+    private SearchStats stats; // counters of the last search
+    private int[][] moveBuffers; // per-ply move lists, reused across searches
+    private final TranspositionTable memo; // canonical key -> exact value, or null
+
     public MinimaxAgent() {
+        this(false);
+    }
+
+    public MinimaxAgent(boolean memoize) {
         this.nodesExplored = 0;
+        this.memo = memoize ? new HeapTranspositionTable() : null;
+        this.stats = new SearchStats(0);
     }
-    
+
     /**
      * Returns best move using plain Minimax algorithm
      */
     public Move minimax(Board board) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+        long start = System.nanoTime();
         nodesExplored = 0;
-        List<Move> actions = GameEngine.actions(board);
-        
-        if (actions. isEmpty()) {
+        SearchBoard search = new SearchBoard(board);
+        int m = search.getSize();
+        stats = new SearchStats(search.getCellCount());
+
+        // Empty cells come out in ascending order, which is the same
+        // lexicographic order Move.compareTo uses for tie-breaking
+        ensureBuffers(search.getCellCount());
+        int[] moves = moveBuffers[0];
+        int count = search.emptyCells(moves);
+
+        if (count == 0) {
+            event.complete("Minimax", board, 1, stats, null);
             return null;
         }
-        
-        // Sort for deterministic tie-breaking
-        Collections.sort(actions);
-        
+
         char player = GameEngine.player(board);
         boolean isMaximizing = (player == 'X');
-        
-        Move bestMove = null;
-        double bestValue = isMaximizing ? Double. NEGATIVE_INFINITY : Double. POSITIVE_INFINITY;
-        
-        for (Move action : actions) {
-            Board newBoard = GameEngine.result(board, action);
-            double value = minimaxValue(newBoard, ! isMaximizing);
-            
+
+        int bestMove = -1;
+        double bestValue = isMaximizing ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < count; i++) {
+            search.play(moves[i]);
+            double value = minimaxValue(search, 1, !isMaximizing);
+            search.undo();
+
             if (isMaximizing) {
                 if (value > bestValue) {
                     bestValue = value;
-                    bestMove = action;
+                    bestMove = moves[i];
                 }
             } else {
                 if (value < bestValue) {
                     bestValue = value;
-                    bestMove = action;
+                    bestMove = moves[i];
                 }
             }
         }
-        
-        return bestMove;
+
+        // A minimax search is a single iteration to the end of the game
+        long elapsed = System.nanoTime() - start;
+        stats.nodes = nodesExplored;
+        stats.elapsedNanos = elapsed;
+        stats.recordIteration(count, nodesExplored, elapsed);
+        Move move = Move.ofCell(bestMove, m);
+        event.complete("Minimax", board, 1, stats, move);
+        return move;
     }
-    
+
     /**
      * Recursive minimax value calculation
      */
-    private double minimaxValue(Board board, boolean isMaximizing) {
+    private double minimaxValue(SearchBoard board, int ply, boolean isMaximizing) {
         nodesExplored++;
-        
+
         if (GameEngine.terminal(board)) {
+            stats.leafEvaluations++;
             Integer utility = GameEngine.utility(board);
             return utility != null ? utility : 0;
         }
-        
-        List<Move> actions = GameEngine. actions(board);
-        Collections.sort(actions);
-        
+
+        long key = 0;
+        if (memo != null) {
+            key = board.getSymmetricKey(board.canonicalSymmetry(Symmetry.ALL));
+            long entry = memo.probe(key);
+            stats.tableProbes++;
+            if (entry != 0) {
+                stats.tableHits++;
+                return TranspositionTable.value(entry);
+            }
+        }
+
+        int[] moves = moveBuffers[ply];
+        int count = board.emptyCells(moves);
+
+        double result;
         if (isMaximizing) {
             double maxValue = Double.NEGATIVE_INFINITY;
-            for (Move action : actions) {
-                Board newBoard = GameEngine.result(board, action);
-                double value = minimaxValue(newBoard, false);
+            for (int i = 0; i < count; i++) {
+                board.play(moves[i]);
+                double value = minimaxValue(board, ply + 1, false);
+                board.undo();
                 maxValue = Math.max(maxValue, value);
             }
-            return maxValue;
+            result = maxValue;
         } else {
             double minValue = Double.POSITIVE_INFINITY;
-            for (Move action : actions) {
-                Board newBoard = GameEngine.result(board, action);
-                double value = minimaxValue(newBoard, true);
-                minValue = Math. min(minValue, value);
+            for (int i = 0; i < count; i++) {
+                board.play(moves[i]);
+                double value = minimaxValue(board, ply + 1, true);
+                board.undo();
+                minValue = Math.min(minValue, value);
             }
-            return minValue;
+            result = minValue;
+        }
+
+        if (memo != null) {
+            memo.store(key, result, 0, TranspositionTable.Bound.EXACT, -1);
         }
+        return result;
     }
-    
+
+    /**
+     * Makes sure there is a move buffer for every ply of the search
+     */
+    private void ensureBuffers(int cellCount) {
+        if (moveBuffers == null || moveBuffers.length <= cellCount
+                || moveBuffers[0].length < cellCount) {
+            moveBuffers = new int[cellCount + 1][cellCount];
+        }
+    }
+
+    /**
+     * Statistics of the last search. Minimax has no cutoffs, and the
+     * whole search counts as one iteration to the end of the game.
+     */
+    public SearchStats getStats() {
+        return stats;
+    }
+
     public int getNodesExplored() {
         return nodesExplored;
     }
-}
\ No newline at end of file
+}
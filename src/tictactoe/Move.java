@@ -3,8 +3,22 @@ package tictactoe;
 /**
  * Represents a move in Tic-Tac-Toe game.
  * Immutable class representing row and column position.
+ *
+ * The searches work on int cell indices (row * m + col) and only turn
+ * their result into a Move. Move.of and Move.ofCell return shared
+ * instances for every cell of boards up to 32×32, so that conversion
+ * does not allocate.
  */
 public class Move implements Comparable<Move> {
+    private static final int CACHE_SIZE = 32; // rows and columns with shared instances
+    private static final Move[] CACHE = new Move[CACHE_SIZE * CACHE_SIZE];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new Move(i / CACHE_SIZE, i % CACHE_SIZE);
+        }
+    }
+
     private final int row;
     private final int col;
     
@@ -12,6 +26,24 @@ public class Move implements Comparable<Move> {
         this.row = row;
         this.col = col;
     }
+
+    /**
+     * Returns the move for the given cell, shared for rows and columns
+     * below 32
+     */
+    public static Move of(int row, int col) {
+        if (row >= 0 && row < CACHE_SIZE && col >= 0 && col < CACHE_SIZE) {
+            return CACHE[row * CACHE_SIZE + col];
+        }
+        return new Move(row, col);
+    }
+
+    /**
+     * Returns the move for a cell index (row * m + col) on an m×m board
+     */
+    public static Move ofCell(int cell, int m) {
+        return of(cell / m, cell % m);
+    }
     
     public int getRow() {
         return row;
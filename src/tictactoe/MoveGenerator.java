@@ -0,0 +1,24 @@
+package tictactoe;
+
+/**
+ * Strategy for the moves a search expands at a node.
+ *
+ * Implementations write candidate cells in ascending order, so agents
+ * that keep unordered moves in lexicographic order still do, and must be
+ * safe to share between search threads: any per-position state belongs
+ * on the SearchBoard.
+ */
+public interface MoveGenerator {
+
+    /**
+     * Every empty cell, as SearchBoard.emptyCells gives them
+     */
+    MoveGenerator ALL_EMPTY = SearchBoard::emptyCells;
+
+    /**
+     * Writes the cells to search from the board's position into the buffer
+     * in ascending order and returns how many were written. Returns 0 only
+     * if the board is full.
+     */
+    int generate(SearchBoard board, int[] buffer);
+}
@@ -0,0 +1,323 @@
+package tictactoe;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Local HTTP server that answers move requests.
+ *
+ *   GET /move?board=X.O.X....&k=3&time=100
+ * returns the alpha-beta move for the player to move as JSON, with the
+ * value (from X's point of view; null for book moves), completed depth,
+ * nodes and search time.
+ * The board lists the m×m cells row by row as X, O and '.' (or '_');
+ * '/' between rows is allowed and ignored. The player to move follows
+ * from the stone counts. k defaults to m, time (ms of search) to 100.
+ *
+ *   GET /stats
+ * returns the request count and the p50, p90, p99 and maximum latency.
+ *
+ * Every request is handled on its own virtual thread, so thousands can
+ * wait at once. Searches are CPU-bound, though, so they run on a
+ * SearchEngine with a bounded number of search threads (one per
+ * processor by default); requests wait for a free one. All searches share
+ * the engine's transposition table, so positions solved for one request
+ * answer the next at once. Keys are salted with (m, k), so requests for
+ * different boards can share it too.
+ *
+ * Usage: java tictactoe.MoveServer [port] [searchThreads] [tableEntries]
+ */
+public final class MoveServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_TIME_MILLIS = 100;
+    private static final int MAX_BOARD_SIZE = 19;
+    private static final int BACKLOG = 4096;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SearchEngine engine;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * Latencies in microseconds, bucketed at a quarter of a power of two
+     * (about 19% resolution) and updated without locking
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKETS = 4;
+        private final AtomicLongArray counts = new AtomicLongArray(Long.SIZE * SUB_BUCKETS);
+
+        void record(long micros) {
+            counts.incrementAndGet(bucket(Math.max(micros, 1)));
+        }
+
+        static int bucket(long micros) {
+            int octave = 63 - Long.numberOfLeadingZeros(micros);
+            int fraction = octave >= 2 ? (int) (micros >>> (octave - 2)) & 3 : 0;
+            return octave * SUB_BUCKETS + fraction;
+        }
+
+        /**
+         * Upper bound of the bucket's range
+         */
+        static long upperBound(int bucket) {
+            int octave = bucket / SUB_BUCKETS;
+            long base = 1L << octave;
+            return base + (base * (bucket % SUB_BUCKETS + 1)) / SUB_BUCKETS;
+        }
+
+        long count() {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            return total;
+        }
+
+        /**
+         * Latency below which the given fraction of requests completed,
+         * rounded up to its bucket; 0 if nothing was recorded
+         */
+        long percentile(double fraction) {
+            long[] snapshot = new long[counts.length()];
+            long total = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = counts.get(i);
+                total += snapshot[i];
+            }
+            long rank = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen > 0 && seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Creates a server on the given port (0 picks a free one) with the
+     * given number of search threads sharing a table of tableEntries
+     * entries. Call start() to begin serving.
+     */
+    public MoveServer(int port, int searchThreads, int tableEntries) throws IOException {
+        this.engine = new SearchEngine(searchThreads);
+        engine.setTranspositionTable(
+                new HeapTranspositionTable(tableEntries, TranspositionTable.ReplacementPolicy.TWO_TIER));
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/move", this::handleMove);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and waits up to delaySeconds for the ones
+     * in progress
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        engine.close();
+    }
+
+    /**
+     * Port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleMove(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        int status = 200;
+        String body;
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            body = move(query);
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = "{\"error\":" + jsonString(e.getMessage()) + "}";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = 503;
+            body = "{\"error\":\"interrupted\"}";
+        } catch (ExecutionException e) {
+            status = 500;
+            body = "{\"error\":\"search failed\"}";
+        }
+        send(exchange, status, body);
+        latencies.record((System.nanoTime() - start) / 1000);
+    }
+
+    /**
+     * Searches the requested position on the engine and describes the
+     * result as JSON
+     */
+    String move(Map<String, String> query) throws InterruptedException, ExecutionException {
+        String encoding = query.get("board");
+        if (encoding == null) {
+            throw new IllegalArgumentException("Missing board parameter");
+        }
+        Board board = parseBoard(encoding, query.get("k"));
+        if (GameEngine.terminal(board)) {
+            throw new IllegalArgumentException("The game is already over");
+        }
+        int time = intParameter(query, "time", DEFAULT_TIME_MILLIS);
+        if (time < 1) {
+            throw new IllegalArgumentException("Time must be at least 1 ms");
+        }
+
+        SearchContext context = new SearchContext();
+        context.setTimeLimit(time);
+        SearchResult result = engine.search(board, context).get();
+        Move move = result.getMove();
+        return "{\"row\":" + move.getRow() + ",\"col\":" + move.getCol() +
+                ",\"player\":\"" + board.getCurrentPlayer() + "\"" +
+                ",\"value\":" + (Double.isNaN(result.getValue()) ? "null" : result.getValue()) +
+                ",\"depth\":" + result.getDepth() +
+                ",\"nodes\":" + result.getStats().getNodes() +
+                ",\"micros\":" + result.getStats().getElapsedNanos() / 1000 + "}";
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        send(exchange, 200, "{\"requests\":" + latencies.count() +
+                ",\"p50Micros\":" + latencies.percentile(0.50) +
+                ",\"p90Micros\":" + latencies.percentile(0.90) +
+                ",\"p99Micros\":" + latencies.percentile(0.99) +
+                ",\"maxMicros\":" + latencies.percentile(1.0) + "}");
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Builds the position from its cell listing. X and O stones are
+     * replayed alternately, so X must have as many stones as O or one more.
+     */
+    static Board parseBoard(String encoding, String winCondition) {
+        String cells = encoding.replace("/", "");
+        int m = (int) Math.round(Math.sqrt(cells.length()));
+        if (m < 1 || m > MAX_BOARD_SIZE || m * m != cells.length()) {
+            throw new IllegalArgumentException("Board must list m×m cells with m between 1 and " +
+                    MAX_BOARD_SIZE);
+        }
+        int k = winCondition == null ? m : parseInt("k", winCondition);
+        if (k < 1 || k > m) {
+            throw new IllegalArgumentException("k must be between 1 and " + m);
+        }
+
+        int[] xs = new int[cells.length()];
+        int[] os = new int[cells.length()];
+        int xCount = 0;
+        int oCount = 0;
+        for (int cell = 0; cell < cells.length(); cell++) {
+            switch (Character.toUpperCase(cells.charAt(cell))) {
+                case 'X': xs[xCount++] = cell; break;
+                case 'O': os[oCount++] = cell; break;
+                case '.': case '_': case '-': break;
+                default: throw new IllegalArgumentException("Unexpected cell: " + cells.charAt(cell));
+            }
+        }
+        if (xCount != oCount && xCount != oCount + 1) {
+            throw new IllegalArgumentException("X must have as many stones as O or one more");
+        }
+
+        Board board = GameEngine.initialState(m, k);
+        for (int i = 0; i < xCount; i++) {
+            board = board.makeMove(xs[i]);
+            if (i < oCount) {
+                board = board.makeMove(os[i]);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Quotes text as a JSON string. Error messages echo the request, so
+     * quotes, backslashes and control characters are escaped.
+     */
+    static String jsonString(String text) {
+        StringBuilder json = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            String[] parts = pair.split("=", 2);
+            query.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                      parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return query;
+    }
+
+    private static int intParameter(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        return value == null ? defaultValue : parseInt(name, value);
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number: " + value);
+        }
+    }
+
+    LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int searchThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int tableEntries = args.length > 2 ? Integer.parseInt(args[2]) : 1 << 22;
+        MoveServer server = new MoveServer(port, searchThreads, tableEntries);
+        server.start();
+        System.out.println("Serving moves on http://localhost:" + server.getPort() + "/move with " +
+                searchThreads + " search threads");
+    }
+}
@@ -0,0 +1,79 @@
+package tictactoe;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Transposition table held in direct memory outside the Java heap, sized
+ * in megabytes. Each entry is a 16-byte slot (key word, then data word),
+ * so a table of n MB holds n * 65536 entries, rounded down to a power of
+ * two. Large tables add nothing to garbage collection work and the memory
+ * used per JVM is known up front.
+ *
+ * A single direct buffer is limited to 2 GB, so the slots are spread over
+ * 1 GB chunks. Like the heap table it can be shared by search threads
+ * without locking.
+ */
+public class OffHeapTranspositionTable extends PackedTranspositionTable {
+    private static final int SLOT_BYTES = 16;
+    private static final int CHUNK_SHIFT = 26; // 2^26 slots = 1 GB per chunk
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    private static final ByteBuffer ZEROS = ByteBuffer.allocateDirect(1 << 16); // source for clear()
+
+    private final ByteBuffer[] chunks;
+
+    public OffHeapTranspositionTable(int megabytes) {
+        this(megabytes, ReplacementPolicy.TWO_TIER);
+    }
+
+    public OffHeapTranspositionTable(int megabytes, ReplacementPolicy policy) {
+        super(slots(megabytes), policy);
+        int slots = slots(megabytes);
+        int chunkCount = Math.max(1, slots >>> CHUNK_SHIFT);
+        int chunkSlots = Math.min(slots, 1 << CHUNK_SHIFT);
+        this.chunks = new ByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            // Direct buffers start zeroed, i.e. empty
+            chunks[i] = ByteBuffer.allocateDirect(chunkSlots * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    private static int slots(int megabytes) {
+        return slotCount((long) megabytes * (1 << 20) / SLOT_BYTES);
+    }
+
+    @Override
+    long keyWord(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].getLong((slot & CHUNK_MASK) * SLOT_BYTES);
+    }
+
+    @Override
+    long dataWord(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT].getLong((slot & CHUNK_MASK) * SLOT_BYTES + 8);
+    }
+
+    @Override
+    void write(int slot, long keyWord, long dataWord) {
+        ByteBuffer chunk = chunks[slot >>> CHUNK_SHIFT];
+        int offset = (slot & CHUNK_MASK) * SLOT_BYTES;
+        chunk.putLong(offset, keyWord);
+        chunk.putLong(offset + 8, dataWord);
+    }
+
+    @Override
+    public void clear() {
+        // Bulk copies from a zeroed buffer, 64 KB at a time
+        for (ByteBuffer chunk : chunks) {
+            for (int offset = 0; offset < chunk.capacity(); offset += ZEROS.capacity()) {
+                chunk.put(offset, ZEROS, 0, Math.min(ZEROS.capacity(), chunk.capacity() - offset));
+            }
+        }
+    }
+
+    /**
+     * Size of the table in bytes
+     */
+    public long getSizeInBytes() {
+        return (long) getCapacity() * SLOT_BYTES;
+    }
+}
@@ -0,0 +1,133 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Precomputed opening moves, as written by OpeningBookBuilder.
+ *
+ * The book file holds a header (magic, m, k, entry count), the canonical
+ * Zobrist keys of the book positions in ascending order, and then the
+ * book move of each position as a cell index in the canonical frame. A
+ * lookup canonicalizes the board, binary-searches the keys and maps the
+ * move back, so it takes microseconds.
+ *
+ * The file is memory-mapped on the first lookup, not when the book is
+ * opened.
+ */
+public final class OpeningBook {
+    static final int MAGIC = 0x5454424B; // "TTBK"
+    static final int HEADER_BYTES = 16;  // magic, m, k, count
+    static final String DIRECTORY = "books";
+
+    private final Path file;
+    private volatile MappedByteBuffer data; // null until the first lookup
+    private int m;
+    private int k;
+    private int count;
+
+    private OpeningBook(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns a book backed by the given file; the file is read on first use
+     */
+    public static OpeningBook open(Path file) {
+        return new OpeningBook(file);
+    }
+
+    /**
+     * Returns the book for m×m boards with win condition k from the books
+     * directory, or null if there is none
+     */
+    public static OpeningBook find(int m, int k) {
+        Path file = Path.of(DIRECTORY, fileName(m, k));
+        return Files.isRegularFile(file) ? open(file) : null;
+    }
+
+    /**
+     * Standard file name of the book for m×m boards with win condition k
+     */
+    public static String fileName(int m, int k) {
+        return "opening-" + m + "x" + m + "-k" + k + ".book";
+    }
+
+    /**
+     * Returns the book move for the position, or null if it is not in the
+     * book
+     */
+    public Move lookup(Board board) {
+        MappedByteBuffer entries = mapped();
+        if (board.getSize() != m || board.getWinCondition() != k || count == 0) {
+            return null;
+        }
+
+        SearchBoard search = new SearchBoard(board);
+        int symmetry = search.canonicalSymmetry(Symmetry.searchTransforms(m, k));
+        long key = search.getSymmetricKey(symmetry);
+
+        // Binary search over the sorted keys
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = entries.getLong(HEADER_BYTES + mid * 8);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                int canonicalMove = entries.getShort(HEADER_BYTES + count * 8 + mid * 2);
+                int cell = Symmetry.inverseMaps(m)[symmetry][canonicalMove];
+                // A key collision could name an occupied cell; treat it as a miss
+                return board.isEmpty(cell / m, cell % m) ? Move.ofCell(cell, m) : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Number of positions in the book
+     */
+    public int size() {
+        mapped();
+        return count;
+    }
+
+    private MappedByteBuffer mapped() {
+        MappedByteBuffer entries = data;
+        if (entries == null) {
+            synchronized (this) {
+                entries = data;
+                if (entries == null) {
+                    entries = map();
+                    data = entries;
+                }
+            }
+        }
+        return entries;
+    }
+
+    private MappedByteBuffer map() {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            entries.order(ByteOrder.BIG_ENDIAN);
+            if (entries.capacity() < HEADER_BYTES || entries.getInt(0) != MAGIC) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            m = entries.getInt(4);
+            k = entries.getInt(8);
+            count = entries.getInt(12);
+            return entries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package tictactoe;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Offline builder for an OpeningBook.
+ *
+ * Walks every position reachable from GameEngine.initialState(m, k) within
+ * the given number of plies, keeping one position per symmetry class, and
+ * stores the move a fixed-depth AlphaBetaAgent search picks for each.
+ * Positions are keyed by their canonical Zobrist key (over the transforms
+ * the search treats as equivalent), and moves are stored in the canonical
+ * frame.
+ *
+ * Usage: java tictactoe.OpeningBookBuilder m k plies searchDepth [file]
+ */
+public final class OpeningBookBuilder {
+
+    private OpeningBookBuilder() {
+    }
+
+    /**
+     * Builds the book and writes it to the given file. Returns the number
+     * of positions stored.
+     */
+    public static int build(int m, int k, int plies, int searchDepth, Path file) throws IOException {
+        int[] transforms = Symmetry.searchTransforms(m, k);
+        int[][] maps = Symmetry.cellMaps(m);
+        AlphaBetaAgent agent = new AlphaBetaAgent(searchDepth, true);
+        int[] cells = new int[m * m];
+
+        Map<Long, Short> book = new TreeMap<>();
+        // Each layer holds one position per symmetry class, by canonical key
+        Map<Long, Board> layer = new LinkedHashMap<>();
+        Board start = GameEngine.initialState(m, k);
+        layer.put(canonicalKey(start, transforms), start);
+
+        for (int ply = 0; ply < plies && !layer.isEmpty(); ply++) {
+            Map<Long, Board> next = new LinkedHashMap<>();
+            for (Board board : layer.values()) {
+                SearchBoard search = new SearchBoard(board);
+                int symmetry = search.canonicalSymmetry(transforms);
+                long key = search.getSymmetricKey(symmetry);
+
+                Move move = agent.alphaBeta(board);
+                int cell = move.getRow() * m + move.getCol();
+                book.put(key, (short) maps[symmetry][cell]);
+
+                int count = GameEngine.actions(board, cells);
+                for (int i = 0; i < count; i++) {
+                    Board child = board.makeMove(cells[i]);
+                    if (!GameEngine.terminal(child)) {
+                        next.putIfAbsent(canonicalKey(child, transforms), child);
+                    }
+                }
+            }
+            layer = next;
+        }
+
+        write(m, k, book, file);
+        return book.size();
+    }
+
+    private static long canonicalKey(Board board, int[] transforms) {
+        SearchBoard search = new SearchBoard(board);
+        return search.getSymmetricKey(search.canonicalSymmetry(transforms));
+    }
+
+    private static void write(int m, int k, Map<Long, Short> book, Path file) throws IOException {
+        // TreeMap iterates keys in ascending signed order, as lookup expects
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(OpeningBook.MAGIC);
+            out.writeInt(m);
+            out.writeInt(k);
+            out.writeInt(book.size());
+            for (long key : book.keySet()) {
+                out.writeLong(key);
+            }
+            for (short move : book.values()) {
+                out.writeShort(move);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("Usage: java tictactoe.OpeningBookBuilder m k plies searchDepth [file]");
+            return;
+        }
+        int m = Integer.parseInt(args[0]);
+        int k = Integer.parseInt(args[1]);
+        int plies = Integer.parseInt(args[2]);
+        int searchDepth = Integer.parseInt(args[3]);
+        Path file;
+        if (args.length > 4) {
+            file = Path.of(args[4]);
+        } else {
+            Files.createDirectories(Path.of(OpeningBook.DIRECTORY));
+            file = Path.of(OpeningBook.DIRECTORY, OpeningBook.fileName(m, k));
+        }
+
+        long start = System.currentTimeMillis();
+        int positions = build(m, k, plies, searchDepth, file);
+        System.out.println("Wrote " + positions + " positions to " + file +
+                " in " + (System.currentTimeMillis() - start) + "ms");
+    }
+}
@@ -0,0 +1,127 @@
+package tictactoe;
+
+/**
+ * Slot layout and replacement logic shared by the transposition table
+ * implementations. A slot is two longs: the data word and the key XORed
+ * with it. Subclasses only decide where slots live.
+ *
+ * Storing key ^ data lets threads share a table without locking: an entry
+ * torn by two concurrent stores no longer matches its key and reads as a
+ * miss.
+ */
+abstract class PackedTranspositionTable implements TranspositionTable {
+
+    // Data word layout: move + 1 (16 bits) | bound (2) | depth (8) | used (1) | value (37, signed)
+    private static final int BOUND_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 18;
+    private static final long USED_BIT = 1L << 26;
+    private static final int VALUE_SHIFT = 27;
+    private static final int MAX_DEPTH = 255;
+    private static final long MAX_VALUE = (1L << 36) - 1;
+    private static final Bound[] BOUNDS = Bound.values();
+
+    private final int mask;
+    private final ReplacementPolicy policy;
+
+    /**
+     * @param slots number of slots, a power of two of at least 2
+     */
+    PackedTranspositionTable(int slots, ReplacementPolicy policy) {
+        this.mask = slots - 1;
+        this.policy = policy;
+    }
+
+    /**
+     * Rounds a requested entry count down to a power of two
+     */
+    static int slotCount(long entries) {
+        if (entries < 2) {
+            throw new IllegalArgumentException("Transposition table needs at least 2 entries");
+        }
+        return (int) Long.highestOneBit(Math.min(entries, 1L << 30));
+    }
+
+    /** Key word (key ^ data) of a slot */
+    abstract long keyWord(int slot);
+
+    /** Data word of a slot, 0 if empty */
+    abstract long dataWord(int slot);
+
+    abstract void write(int slot, long keyWord, long dataWord);
+
+    @Override
+    public long probe(long key) {
+        int index = (int) key & mask;
+        if (policy == ReplacementPolicy.TWO_TIER) {
+            index &= ~1;
+            long entry = dataWord(index);
+            if (entry != 0 && (keyWord(index) ^ entry) == key) return entry;
+            index++;
+        }
+        long entry = dataWord(index);
+        return (keyWord(index) ^ entry) == key ? entry : 0;
+    }
+
+    @Override
+    public void store(long key, double value, int depth, Bound bound, int move) {
+        long v = (long) value;
+        if (v != value || v > MAX_VALUE || v < -MAX_VALUE) {
+            return;
+        }
+        int d = Math.min(depth, MAX_DEPTH);
+        long entry = v << VALUE_SHIFT | USED_BIT | (long) d << DEPTH_SHIFT
+                | (long) bound.ordinal() << BOUND_SHIFT | (move + 1);
+
+        int index = (int) key & mask;
+        switch (policy) {
+            case ALWAYS_REPLACE:
+                break;
+            case DEPTH_PREFERRED:
+                if (isDeeperOther(index, key, d)) {
+                    return;
+                }
+                break;
+            case TWO_TIER:
+                index &= ~1;
+                if (isDeeperOther(index, key, d)) {
+                    index++; // deeper entry stays, use the always-replace slot
+                }
+                break;
+        }
+        write(index, key ^ entry, entry);
+    }
+
+    /**
+     * True if the slot holds another position searched deeper than depth
+     */
+    private boolean isDeeperOther(int index, long key, int depth) {
+        long existing = dataWord(index);
+        return existing != 0 && (keyWord(index) ^ existing) != key && depth(existing) > depth;
+    }
+
+    @Override
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    @Override
+    public ReplacementPolicy getReplacementPolicy() {
+        return policy;
+    }
+
+    static double value(long entry) {
+        return entry >> VALUE_SHIFT;
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    static Bound bound(long entry) {
+        return BOUNDS[(int) (entry >>> BOUND_SHIFT) & 3];
+    }
+
+    static int move(long entry) {
+        return (int) (entry & 0xFFFF) - 1;
+    }
+}
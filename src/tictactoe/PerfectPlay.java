@@ -0,0 +1,211 @@
+package tictactoe;
+
+/**
+ * Perfect-play table for 3×3 tic-tac-toe.
+ *
+ * Every 3×3 position is packed into a base-3 key (cell i contributes
+ * 3^i times 0, 1 for X or 2 for O), so a table of 3^9 = 19683 bytes can
+ * hold the game value and best move of each one. The table is built once,
+ * when the class is first used: an exact solver memoized on the canonical
+ * key (the smallest key among the 8 symmetric images, 765 positions)
+ * computes the values, and a walk over the 5478 reachable positions
+ * records each one's value and best move. Lookups are then an array read.
+ *
+ * The best move is the first optimal move in row-major order, the move
+ * MinimaxAgent picks, so the table can stand in for it as an oracle.
+ */
+public final class PerfectPlay {
+    private static final int CELLS = 9;
+    private static final int KEYS = 19683; // 3^9
+    private static final int NO_MOVE = 0xF;
+    private static final int REACHABLE = 0x40; // set in every entry of a reachable position
+    private static final int[][] LINES = {
+        {0, 1, 2}, {3, 4, 5}, {6, 7, 8}, // rows
+        {0, 3, 6}, {1, 4, 7}, {2, 5, 8}, // columns
+        {0, 4, 8}, {2, 4, 6}             // diagonals
+    };
+    private static final int[] POWERS = {1, 3, 9, 27, 81, 243, 729, 2187, 6561};
+
+    // Entries: REACHABLE | (value + 1) << 4 | best cell (NO_MOVE if terminal); 0 if unreachable
+    private static final byte[] TABLE = new byte[KEYS];
+    private static final byte[] SOLVED = new byte[KEYS]; // canonical key -> value + 2, 0 if unsolved
+    private static final int[][] SYMMETRIES = Symmetry.cellMaps(3);
+    private static int reachablePositions;
+    private static int solvedPositions;
+
+    static {
+        compile(new int[CELLS], 'X');
+    }
+
+    private PerfectPlay() {
+    }
+
+    /**
+     * Whether the table applies to the board: 3×3 with three in a row
+     */
+    public static boolean covers(Board board) {
+        return board.getSize() == 3 && board.getWinCondition() == 3;
+    }
+
+    /**
+     * Game value of the position with perfect play: 1 if X wins, -1 if O
+     * wins, 0 for a draw
+     */
+    public static int value(Board board) {
+        return ((entry(board) >> 4) & 3) - 1;
+    }
+
+    /**
+     * First optimal move in row-major order, or null if the game is over
+     */
+    public static Move bestMove(Board board) {
+        int cell = entry(board) & 0xF;
+        return cell == NO_MOVE ? null : Move.ofCell(cell, 3);
+    }
+
+    /**
+     * Number of positions reachable from the empty board, terminal ones
+     * included
+     */
+    static int getReachablePositions() {
+        return reachablePositions;
+    }
+
+    /**
+     * Number of positions up to symmetry the solver evaluated
+     */
+    static int getSolvedPositions() {
+        return solvedPositions;
+    }
+
+    private static int entry(Board board) {
+        if (!covers(board)) {
+            throw new IllegalArgumentException("PerfectPlay only covers 3×3 boards with k = 3");
+        }
+        int entry = TABLE[key(board)];
+        if (entry == 0) {
+            throw new IllegalArgumentException("Position cannot arise in play");
+        }
+        return entry;
+    }
+
+    /**
+     * Base-3 key of a 3×3 board
+     */
+    static int key(Board board) {
+        int key = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            char c = board.getCell(cell / 3, cell % 3);
+            key += POWERS[cell] * (c == 'X' ? 1 : c == 'O' ? 2 : 0);
+        }
+        return key;
+    }
+
+    private static int key(int[] cells) {
+        int key = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            key += POWERS[cell] * cells[cell];
+        }
+        return key;
+    }
+
+    private static int canonicalKey(int[] cells) {
+        int best = KEYS;
+        for (int[] map : SYMMETRIES) {
+            int key = 0;
+            for (int cell = 0; cell < CELLS; cell++) {
+                key += POWERS[map[cell]] * cells[cell];
+            }
+            best = Math.min(best, key);
+        }
+        return best;
+    }
+
+    /**
+     * Records the position and everything reachable from it in the table
+     */
+    private static void compile(int[] cells, char player) {
+        int key = key(cells);
+        if (TABLE[key] != 0) {
+            return;
+        }
+        reachablePositions++;
+        int value = solve(cells, player);
+        int bestMove = NO_MOVE;
+        if (winner(cells) == 0 && !full(cells)) {
+            int stone = player == 'X' ? 1 : 2;
+            for (int cell = 0; cell < CELLS && bestMove == NO_MOVE; cell++) {
+                if (cells[cell] == 0) {
+                    cells[cell] = stone;
+                    if (solve(cells, player == 'X' ? 'O' : 'X') == value) {
+                        bestMove = cell;
+                    }
+                    cells[cell] = 0;
+                }
+            }
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (cells[cell] == 0) {
+                    cells[cell] = stone;
+                    compile(cells, player == 'X' ? 'O' : 'X');
+                    cells[cell] = 0;
+                }
+            }
+        }
+        TABLE[key] = (byte) (REACHABLE | (value + 1) << 4 | bestMove);
+    }
+
+    /**
+     * Exact value of the position from X's point of view, memoized under
+     * its canonical key
+     */
+    private static int solve(int[] cells, char player) {
+        int winner = winner(cells);
+        if (winner != 0) {
+            return winner == 1 ? 1 : -1;
+        }
+        if (full(cells)) {
+            return 0;
+        }
+        int canonical = canonicalKey(cells);
+        if (SOLVED[canonical] != 0) {
+            return SOLVED[canonical] - 2;
+        }
+
+        boolean isMaximizing = player == 'X';
+        int best = isMaximizing ? -1 : 1;
+        int stone = isMaximizing ? 1 : 2;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (cells[cell] == 0) {
+                cells[cell] = stone;
+                int value = solve(cells, isMaximizing ? 'O' : 'X');
+                cells[cell] = 0;
+                best = isMaximizing ? Math.max(best, value) : Math.min(best, value);
+            }
+        }
+        solvedPositions++;
+        SOLVED[canonical] = (byte) (best + 2);
+        return best;
+    }
+
+    /**
+     * 1 if X has three in a row, 2 if O has, 0 otherwise
+     */
+    private static int winner(int[] cells) {
+        for (int[] line : LINES) {
+            int stone = cells[line[0]];
+            if (stone != 0 && cells[line[1]] == stone && cells[line[2]] == stone) {
+                return stone;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean full(int[] cells) {
+        for (int stone : cells) {
+            if (stone == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
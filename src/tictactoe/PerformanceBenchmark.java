@@ -1,110 +1,321 @@
 package tictactoe;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
 /**
  * Performance benchmarking for comparing algorithms and move ordering.
+ *
+ * Every benchmark is warmed up, measured over several timed iterations and
+ * run in its own forked JVM (see Microbenchmark), so the numbers reflect
+ * compiled code rather than interpreter and JIT noise. Each reports
+ * throughput with its error and the bytes allocated per operation.
+ *
+ * Board-level benchmarks cycle through a fixed corpus of mid-game
+ * positions; search benchmarks cover a grid of board size, win condition,
+ * depth and move ordering, and MCTS searches with a fixed playout budget.
+ *
+ * Usage: java tictactoe.PerformanceBenchmark [--warmup n] [--iterations n]
+ *        [--time ms] [--forks n] [--filter text]
+ * With --forks 0 everything runs in the current JVM.
  */
 public class PerformanceBenchmark {
-    
+    private static final int CORPUS_SIZE = 16;
+    private static final long CORPUS_SEED = 20251127L;
+    private static final String RESULT_PREFIX = "RESULT\t";
+
+    /** Board sizes and win conditions of the board-level benchmarks */
+    private static final int[][] BOARDS = {{3, 3}, {5, 4}, {7, 4}};
+
+    /** Search grid: m, k, depth */
+    private static final int[][] SEARCHES = {{3, 3, 9}, {4, 3, 4}, {4, 4, 5}, {5, 4, 3}};
+
+    /** MCTS boards (m, k); each operation is one search of MCTS_PLAYOUTS playouts */
+    private static final int[][] MCTS_BOARDS = {{7, 4}, {9, 5}};
+    private static final int MCTS_PLAYOUTS = 1000;
+
+    /**
+     * A benchmarked operation; the returned value is consumed so the work
+     * cannot be optimized away
+     */
+    interface Operation {
+        long run();
+    }
+
     public static void runBenchmarks() {
+        runBenchmarks(new String[0]);
+    }
+
+    public static void main(String[] args) {
+        runBenchmarks(args);
+    }
+
+    private static void runBenchmarks(String[] args) {
+        int warmup = 5;
+        int iterations = 5;
+        long time = 200;
+        int forks = 1;
+        String filter = "";
+        int child = -1;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Option needs a value: " + args[i]);
+            }
+            switch (args[i]) {
+                case "--warmup": warmup = Integer.parseInt(args[i + 1]); break;
+                case "--iterations": iterations = Integer.parseInt(args[i + 1]); break;
+                case "--time": time = Long.parseLong(args[i + 1]); break;
+                case "--forks": forks = Integer.parseInt(args[i + 1]); break;
+                case "--filter": filter = args[i + 1]; break;
+                case "--run": child = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Map<String, Supplier<Operation>> benchmarks = benchmarks();
+        List<String> names = new ArrayList<>(benchmarks.keySet());
+        Microbenchmark harness = new Microbenchmark(warmup, iterations, time);
+
+        if (child >= 0) {
+            // Forked JVM: run one benchmark and report it to the parent
+            Microbenchmark.Result result = measure(harness, names.get(child), benchmarks);
+            System.out.println(RESULT_PREFIX + result.name + "\t" + result.opsPerSecond + "\t" +
+                    result.error + "\t" + result.bytesPerOp);
+            return;
+        }
+
         System.out.println("=== Performance Benchmarks ===\n");
-        
-        benchmark3x3();
-        benchmark4x4();
+        System.out.println(warmup + " warmup and " + iterations + " measurement iterations of " +
+                time + "ms, " + (forks == 0 ? "no forks" : forks + " fork(s)") + "\n");
+        System.out.printf("%-44s %14s %12s %12s%n", "Benchmark", "ops/s", "error", "B/op");
+
+        for (int index = 0; index < names.size(); index++) {
+            String name = names.get(index);
+            if (!name.contains(filter)) {
+                continue;
+            }
+            if (forks == 0) {
+                print(measure(harness, name, benchmarks));
+                continue;
+            }
+            for (int fork = 0; fork < forks; fork++) {
+                print(fork(index, warmup, iterations, time));
+            }
+        }
+        System.out.println();
+
         testEquivalence();
     }
-    
-    private static void benchmark3x3() {
-        System.out.println("--- 3×3 Board (k=3) ---");
-        Board board = GameEngine.initialState(3, 3);
-        
-        // Minimax
-        MinimaxAgent minimax = new MinimaxAgent();
-        long start = System.currentTimeMillis();
-        Move minimaxMove = minimax.minimax(board);
-        long minimaxTime = System.currentTimeMillis() - start;
-        int minimaxNodes = minimax.getNodesExplored();
-        
-        // Alpha-Beta
-        AlphaBetaAgent alphaBeta = new AlphaBetaAgent();
-        start = System.currentTimeMillis();
-        Move abMove = alphaBeta.alphaBeta(board);
-        long abTime = System.currentTimeMillis() - start;
-        int abNodes = alphaBeta.getNodesExplored();
-        
-        System.out.println("Minimax:");
-        System.out.println("  Move: " + minimaxMove);
-        System.out.println("  Time: " + minimaxTime + "ms");
-        System.out.println("  Nodes: " + minimaxNodes);
-        
-        System.out.println("\nAlpha-Beta:");
-        System.out.println("  Move: " + abMove);
-        System.out.println("  Time: " + abTime + "ms");
-        System.out.println("  Nodes: " + abNodes);
-        
-        System.out.println("\nSpeedup: " + String.format("%.2fx", (double) minimaxNodes / abNodes));
-        System.out.println("Moves match: " + minimaxMove.equals(abMove));
-        System.out.println();
+
+    private static Microbenchmark.Result measure(Microbenchmark harness, String name,
+                                                 Map<String, Supplier<Operation>> benchmarks) {
+        Operation operation = benchmarks.get(name).get();
+        long[] sink = new long[1];
+        return harness.run(name, () -> {
+            sink[0] ^= operation.run();
+            return sink;
+        });
     }
-    
-    private static void benchmark4x4() {
-        System.out.println("--- 4×4 Board (k=3) ---");
-        Board board = GameEngine.initialState(4, 4);
-        
-        // Without move ordering
-        AlphaBetaAgent abNoOrdering = new AlphaBetaAgent(6, false);
-        long start = System. currentTimeMillis();
-        Move moveNoOrdering = abNoOrdering.alphaBeta(board);
-        long timeNoOrdering = System.currentTimeMillis() - start;
-        int nodesNoOrdering = abNoOrdering.getNodesExplored();
-        
-        // With move ordering
-        AlphaBetaAgent abWithOrdering = new AlphaBetaAgent(6, true);
-        start = System.currentTimeMillis();
-        Move moveWithOrdering = abWithOrdering.alphaBeta(board);
-        long timeWithOrdering = System.currentTimeMillis() - start;
-        int nodesWithOrdering = abWithOrdering.getNodesExplored();
-        
-        System.out.println("Alpha-Beta without move ordering:");
-        System.out. println("  Move: " + moveNoOrdering);
-        System. out.println("  Time: " + timeNoOrdering + "ms");
-        System.out.println("  Nodes: " + nodesNoOrdering);
-        
-        System.out.println("\nAlpha-Beta with move ordering:");
-        System.out.println("  Move: " + moveWithOrdering);
-        System.out.println("  Time: " + timeWithOrdering + "ms");
-        System.out.println("  Nodes: " + nodesWithOrdering);
-        
-        System. out.println("\nReduction: " + String.format("%.2f%%", 
-            100.0 * (nodesNoOrdering - nodesWithOrdering) / nodesNoOrdering));
-        System.out.println();
+
+    /**
+     * Runs one benchmark in a fresh JVM with the same class path
+     */
+    private static Microbenchmark.Result fork(int index, int warmup, int iterations, long time) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                PerformanceBenchmark.class.getName(), "--run", String.valueOf(index),
+                "--warmup", String.valueOf(warmup), "--iterations", String.valueOf(iterations),
+                "--time", String.valueOf(time));
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        try {
+            Process process = builder.start();
+            Microbenchmark.Result result = null;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(RESULT_PREFIX)) {
+                        String[] fields = line.split("\t");
+                        result = new Microbenchmark.Result(fields[1], Double.parseDouble(fields[2]),
+                                Double.parseDouble(fields[3]), Double.parseDouble(fields[4]));
+                    }
+                }
+            }
+            if (process.waitFor() != 0 || result == null) {
+                throw new IllegalStateException("Forked benchmark " + index + " failed");
+            }
+            return result;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not fork benchmark JVM", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while benchmarking", e);
+        }
+    }
+
+    private static void print(Microbenchmark.Result result) {
+        System.out.printf("%-44s %14.1f %12.1f %12.1f%n",
+                result.name, result.opsPerSecond, result.error, result.bytesPerOp);
+    }
+
+    /**
+     * All benchmarks by name, in run order. Each supplier does the setup
+     * and returns the operation to time.
+     */
+    private static Map<String, Supplier<Operation>> benchmarks() {
+        Map<String, Supplier<Operation>> benchmarks = new LinkedHashMap<>();
+
+        for (int[] size : BOARDS) {
+            int m = size[0];
+            int k = size[1];
+            String suffix = " m=" + m + " k=" + k;
+            benchmarks.put("GameEngine.actions" + suffix, () -> cycle(corpus(m, k),
+                    board -> GameEngine.actions(board).size()));
+            benchmarks.put("GameEngine.actions(int[])" + suffix, () -> {
+                int[] cells = new int[m * m];
+                return cycle(corpus(m, k), board -> GameEngine.actions(board, cells));
+            });
+            benchmarks.put("GameEngine.winner" + suffix, () -> cycle(corpus(m, k), board -> {
+                Character winner = GameEngine.winner(board);
+                return winner == null ? 0 : winner;
+            }));
+            benchmarks.put("GameEngine.terminal" + suffix, () -> cycle(corpus(m, k),
+                    board -> GameEngine.terminal(board) ? 1 : 0));
+            benchmarks.put("Board.makeMove" + suffix, () -> {
+                // One legal cell per position, found during setup so only makeMove is timed
+                Board[] boards = corpus(m, k).toArray(new Board[0]);
+                int[] cells = new int[boards.length];
+                int[] buffer = new int[m * m];
+                for (int i = 0; i < boards.length; i++) {
+                    GameEngine.actions(boards[i], buffer);
+                    cells[i] = buffer[0];
+                }
+                int[] next = new int[1];
+                return () -> {
+                    int i = next[0];
+                    next[0] = (i + 1) % boards.length;
+                    return boards[i].makeMove(cells[i]).getZobristKey();
+                };
+            });
+            benchmarks.put("HeuristicEvaluator.evaluate" + suffix, () -> cycle(corpus(m, k),
+                    board -> (long) HeuristicEvaluator.evaluate(board)));
+        }
+
+        benchmarks.put("MinimaxAgent.minimax m=3 k=3 empty", () -> {
+            MinimaxAgent agent = new MinimaxAgent();
+            Board board = GameEngine.initialState(3, 3);
+            return () -> cell(agent.minimax(board), 3);
+        });
+        benchmarks.put("MinimaxAgent.minimax m=3 k=3 corpus", () -> {
+            MinimaxAgent agent = new MinimaxAgent();
+            return cycle(corpus(3, 3), board -> cell(agent.minimax(board), 3));
+        });
+
+        for (int[] search : SEARCHES) {
+            for (boolean ordering : new boolean[]{true, false}) {
+                int m = search[0];
+                int k = search[1];
+                int depth = search[2];
+                benchmarks.put("AlphaBetaAgent.alphaBeta m=" + m + " k=" + k + " d=" + depth +
+                        (ordering ? " ordered" : " unordered"), () -> {
+                    AlphaBetaAgent agent = new AlphaBetaAgent(depth, ordering);
+                    // A small table keeps the per-operation clear cheap
+                    TranspositionTable table = new HeapTranspositionTable(
+                            1 << 16, TranspositionTable.ReplacementPolicy.TWO_TIER);
+                    agent.setTranspositionTable(table);
+                    return cycle(corpus(m, k), board -> {
+                        table.clear(); // every operation is a cold search
+                        return cell(agent.alphaBeta(board), m);
+                    });
+                });
+            }
+        }
+
+        for (int[] size : MCTS_BOARDS) {
+            int m = size[0];
+            int k = size[1];
+            benchmarks.put("MctsAgent.mcts m=" + m + " k=" + k + " p=" + MCTS_PLAYOUTS, () -> {
+                MctsAgent agent = new MctsAgent(MCTS_PLAYOUTS);
+                return cycle(corpus(m, k), board -> cell(agent.mcts(board), m));
+            });
+        }
+        return benchmarks;
+    }
+
+    interface BoardOperation {
+        long run(Board board);
     }
-    
+
+    /**
+     * Operation applying op to the corpus positions in turn
+     */
+    private static Operation cycle(List<Board> corpus, BoardOperation op) {
+        Board[] boards = corpus.toArray(new Board[0]);
+        int[] next = new int[1];
+        return () -> {
+            Board board = boards[next[0]];
+            next[0] = (next[0] + 1) % boards.length;
+            return op.run(board);
+        };
+    }
+
+    /**
+     * Fixed corpus of non-terminal mid-game positions, generated by seeded
+     * random play so every run and every fork sees the same boards
+     */
+    static List<Board> corpus(int m, int k) {
+        Random random = new Random(CORPUS_SEED + 31L * m + k);
+        List<Board> corpus = new ArrayList<>();
+        while (corpus.size() < CORPUS_SIZE) {
+            Board board = GameEngine.initialState(m, k);
+            int plies = 2 + random.nextInt(Math.max(1, m * m / 2 - 1));
+            for (int ply = 0; ply < plies && !GameEngine.terminal(board); ply++) {
+                List<Move> moves = GameEngine.actions(board);
+                board = board.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            if (!GameEngine.terminal(board)) {
+                corpus.add(board);
+            }
+        }
+        return corpus;
+    }
+
+    private static long cell(Move move, int m) {
+        return move == null ? -1 : move.getRow() * m + move.getCol();
+    }
+
     private static void testEquivalence() {
         System.out.println("--- Equivalence Test (3×3) ---");
         Board board = GameEngine.initialState(3, 3);
-        
-        MinimaxAgent minimax = new MinimaxAgent();
+
         AlphaBetaAgent alphaBeta = new AlphaBetaAgent();
-        
+
         int testCount = 0;
         int matchCount = 0;
-        
+
         // Test on multiple positions
         for (int i = 0; i < 3 && ! GameEngine.terminal(board); i++) {
-            Move mmMove = minimax.minimax(board);
+            Move mmMove = PerfectPlay.bestMove(board); // the move minimax picks
             Move abMove = alphaBeta.alphaBeta(board);
-            
+
             testCount++;
             if (mmMove.equals(abMove)) {
                 matchCount++;
             }
-            
+
             board = GameEngine.result(board, mmMove);
         }
-        
+
         System.out.println("Tests: " + testCount);
         System.out.println("Matches: " + matchCount);
         System.out.println("Pass: " + (testCount == matchCount));
         System.out.println();
     }
-}
\ No newline at end of file
+}
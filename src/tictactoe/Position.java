@@ -0,0 +1,33 @@
+package tictactoe;
+
+/**
+ * Read-only view of a game position.
+ * Implemented by the immutable Board and the mutable SearchBoard so that
+ * rules and evaluation code can run on either one.
+ */
+interface Position {
+
+    int getSize();
+
+    int getWinCondition();
+
+    char getCurrentPlayer();
+
+    int getMoveCount();
+
+    char getCell(int row, int col);
+
+    /**
+     * Mark at the cell index row * m + col; the index is not checked
+     */
+    char getCell(int cell);
+
+    boolean isEmpty(int row, int col);
+
+    boolean isFull();
+
+    /**
+     * Winner recorded when the winning move was played, or null
+     */
+    Character getWinner();
+}
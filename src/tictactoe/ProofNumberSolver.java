@@ -0,0 +1,411 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Depth-first proof-number search (df-pn) for proving game values.
+ *
+ * A proof shows that one player can force a win: at the player's own
+ * nodes one winning move is enough (OR), at the opponent's nodes every
+ * reply must lose (AND). Each node carries a proof number and a disproof
+ * number, the least number of leaves that still have to be solved to
+ * prove or disprove it, and the search always expands the most-proving
+ * node. Unlike MinimaxAgent it stops as soon as the result is certain,
+ * which makes boards such as 4×4 feasible.
+ *
+ * Proof and disproof numbers are kept in a fixed-size transposition table
+ * keyed by canonical position (all 8 symmetries), sized by a memory cap;
+ * when a bucket is full the entry with the smallest subtree is replaced.
+ *
+ * Instances are not thread-safe.
+ *
+ * Usage: java tictactoe.ProofNumberSolver m k [megabytes] [proofFile]
+ */
+public final class ProofNumberSolver {
+    private static final int INFINITY = 100_000_000;
+    private static final int ENTRY_BYTES = 20;      // key, proof, disproof, work
+    private static final int BUCKET_SIZE = 4;
+    private static final long O_ATTACKER = 0x6A09E667F3BCC909L; // separates the two proofs' entries
+
+    /**
+     * Value of a position under perfect play
+     */
+    public enum Result {
+        X_WINS, O_WINS, DRAW,
+        UNKNOWN // the node limit was reached first
+    }
+
+    private final long[] keys;
+    private final int[] proofs;
+    private final int[] disproofs;
+    private final int[] works; // nodes searched below the entry, for replacement
+    private final int bucketMask;
+
+    private long nodeLimit = Long.MAX_VALUE;
+    private long nodes;
+    private int proofSize;
+    private char attacker;
+    private long salt;
+    private int[][] moveBuffers;
+    private int[][] proofBuffers;
+    private int[][] disproofBuffers;
+
+    /**
+     * Creates a solver whose table uses about the given number of megabytes
+     */
+    public ProofNumberSolver(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Memory cap must be at least 1 MB");
+        }
+        long entries = (long) megabytes * (1 << 20) / ENTRY_BYTES;
+        int buckets = Integer.highestOneBit((int) Math.min(entries / BUCKET_SIZE, 1 << 26));
+        this.bucketMask = buckets - 1;
+        this.keys = new long[buckets * BUCKET_SIZE];
+        this.proofs = new int[keys.length];
+        this.disproofs = new int[keys.length];
+        this.works = new int[keys.length];
+    }
+
+    /**
+     * Proves the value of the position: first whether X wins, then, if
+     * not, whether O wins; otherwise it is a draw
+     */
+    public Result solve(Board board) {
+        long total = 0;
+        Boolean xWins = proveWin(board, 'X');
+        total += nodes;
+        Result result;
+        if (xWins == null) {
+            result = Result.UNKNOWN;
+        } else if (xWins) {
+            result = Result.X_WINS;
+        } else {
+            Boolean oWins = proveWin(board, 'O');
+            total += nodes;
+            result = oWins == null ? Result.UNKNOWN : oWins ? Result.O_WINS : Result.DRAW;
+        }
+        nodes = total;
+        return result;
+    }
+
+    /**
+     * Returns true if the player can force a win from the position, false
+     * if not (the opponent can hold at least a draw), or null if the node
+     * limit was reached first. After a proof, getProofSize() gives the
+     * size of the proof tree.
+     */
+    public Boolean proveWin(Board board, char player) {
+        if (player != 'X' && player != 'O') {
+            throw new IllegalArgumentException("Player must be X or O");
+        }
+        nodes = 0;
+        proofSize = 0;
+        SearchBoard search = start(board, player);
+        if (search.getWinner() != null || search.isFull()) {
+            return Character.valueOf(player).equals(search.getWinner());
+        }
+
+        long numbers = mid(search, INFINITY, INFINITY, 0);
+        if (numbers >>> 32 == 0) {
+            try {
+                proofSize = prove(search, 0, new HashSet<>(), null, 0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e); // no output to fail
+            }
+            return true;
+        }
+        return (int) numbers == 0 ? Boolean.FALSE : null;
+    }
+
+    /**
+     * Writes the proof tree that the player wins from the position to out,
+     * one move per line, indented by depth. At the winner's turns one
+     * winning move is shown, at the opponent's turns every reply; a
+     * position reached again by transposition is marked and not repeated.
+     * Throws IllegalStateException if the position is not a proven win.
+     */
+    public void exportProof(Board board, char player, Appendable out) throws IOException {
+        if (!Boolean.TRUE.equals(proveWin(board, player))) {
+            throw new IllegalStateException("No proof that " + player + " wins this position");
+        }
+        SearchBoard search = start(board, player);
+        out.append("Proof that ").append(player).append(" wins (").append(String.valueOf(proofSize))
+           .append(" positions)\n");
+        prove(search, 0, new HashSet<>(), out, 0);
+    }
+
+    private SearchBoard start(Board board, char player) {
+        attacker = player;
+        salt = player == 'X' ? 0 : O_ATTACKER;
+        SearchBoard search = new SearchBoard(board);
+        int cellCount = search.getCellCount();
+        if (moveBuffers == null || moveBuffers[0].length < cellCount || moveBuffers.length <= cellCount) {
+            moveBuffers = new int[cellCount + 1][cellCount];
+            proofBuffers = new int[cellCount + 1][cellCount];
+            disproofBuffers = new int[cellCount + 1][cellCount];
+        }
+        return search;
+    }
+
+    /**
+     * Multiple iterative deepening: searches below the node until its
+     * proof number reaches proofThreshold or its disproof number reaches
+     * disproofThreshold, then stores its numbers and returns them packed
+     * as proof << 32 | disproof
+     */
+    private long mid(SearchBoard board, int proofThreshold, int disproofThreshold, int ply) {
+        nodes++;
+        long startNodes = nodes;
+        boolean orNode = board.getCurrentPlayer() == attacker;
+        int[] moves = moveBuffers[ply];
+        int[] pn = proofBuffers[ply];
+        int[] dn = disproofBuffers[ply];
+        int count = board.emptyCells(moves);
+        long key = key(board);
+
+        while (true) {
+            for (int i = 0; i < count; i++) {
+                board.play(moves[i]);
+                childNumbers(board, pn, dn, i);
+                board.undo();
+            }
+
+            // OR: proof = min, disproof = sum; AND the other way round
+            int[] selectBy = orNode ? pn : dn;
+            int best = 0;
+            int second = INFINITY;
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += orNode ? dn[i] : pn[i];
+                if (selectBy[i] < selectBy[best]) {
+                    second = selectBy[best];
+                    best = i;
+                } else if (i != best && selectBy[i] < second) {
+                    second = selectBy[i];
+                }
+            }
+            int proof = orNode ? pn[best] : (int) Math.min(sum, INFINITY);
+            int disproof = orNode ? (int) Math.min(sum, INFINITY) : dn[best];
+
+            if (proof >= proofThreshold || disproof >= disproofThreshold || nodes >= nodeLimit) {
+                store(key, proof, disproof, nodes - startNodes + 1);
+                return (long) proof << 32 | disproof;
+            }
+
+            int childProof;
+            int childDisproof;
+            if (orNode) {
+                childProof = Math.min(proofThreshold, second + 1);
+                childDisproof = sub(disproofThreshold, disproof - dn[best]);
+            } else {
+                childProof = sub(proofThreshold, proof - pn[best]);
+                childDisproof = Math.min(disproofThreshold, second + 1);
+            }
+            board.play(moves[best]);
+            mid(board, childProof, childDisproof, ply + 1);
+            board.undo();
+        }
+    }
+
+    private static int sub(int threshold, int amount) {
+        return threshold >= INFINITY ? INFINITY : threshold - amount;
+    }
+
+    /**
+     * Proof and disproof numbers of the position just played into: exact
+     * at the end of the game, from the table if known, else 1 and 1
+     */
+    private void childNumbers(SearchBoard board, int[] pn, int[] dn, int i) {
+        Character winner = board.getWinner();
+        if (winner != null || board.isFull()) {
+            boolean won = winner != null && winner == attacker;
+            pn[i] = won ? 0 : INFINITY;
+            dn[i] = won ? INFINITY : 0;
+            return;
+        }
+        int slot = find(key(board));
+        pn[i] = slot >= 0 ? proofs[slot] : 1;
+        dn[i] = slot >= 0 ? disproofs[slot] : 1;
+    }
+
+    /**
+     * Walks the proof tree below a proven node, writing it to out unless
+     * null, and returns the number of distinct positions in it. Entries
+     * evicted from the table are proven again on the way.
+     */
+    private int prove(SearchBoard board, int ply, Set<Long> seen, Appendable out, int indent)
+            throws IOException {
+        if (!seen.add(key(board))) {
+            return 0;
+        }
+        int size = 1;
+        int[] moves = moveBuffers[ply];
+        int count = board.emptyCells(moves);
+        boolean orNode = board.getCurrentPlayer() == attacker;
+
+        if (orNode) {
+            // One proven move is enough; search again if the table lost it
+            int move = provenMove(board, moves, count);
+            if (move < 0) {
+                mid(board, INFINITY, INFINITY, ply);
+                move = provenMove(board, moves, count);
+                if (move < 0) {
+                    throw new IllegalStateException("Proof could not be reconstructed");
+                }
+            }
+            return size + proveChild(board, move, ply, seen, out, indent);
+        }
+        for (int i = 0; i < count; i++) {
+            size += proveChild(board, moves[i], ply, seen, out, indent);
+        }
+        return size;
+    }
+
+    private int proveChild(SearchBoard board, int move, int ply, Set<Long> seen, Appendable out,
+                           int indent) throws IOException {
+        char player = board.getCurrentPlayer();
+        board.play(move);
+        boolean won = board.getWinner() != null;
+        if (!won) {
+            int slot = find(key(board));
+            if (slot < 0 || proofs[slot] != 0) {
+                mid(board, INFINITY, INFINITY, ply + 1); // evicted: prove it again
+            }
+        }
+        if (out != null) {
+            int m = board.getSize();
+            out.append("  ".repeat(indent)).append(player)
+               .append(" (").append(String.valueOf(move / m)).append(", ").append(String.valueOf(move % m))
+               .append(')')
+               .append(won ? " wins" : seen.contains(key(board)) ? " (transposition)" : "")
+               .append('\n');
+        }
+        int size = won ? 1 : prove(board, ply + 1, seen, out, indent + 1);
+        board.undo();
+        return size;
+    }
+
+    /**
+     * First move whose position is a known proof, or -1
+     */
+    private int provenMove(SearchBoard board, int[] moves, int count) {
+        for (int i = 0; i < count; i++) {
+            board.play(moves[i]);
+            boolean proven;
+            if (board.getWinner() != null) {
+                proven = board.getWinner() == attacker;
+            } else {
+                int slot = find(key(board));
+                proven = slot >= 0 && proofs[slot] == 0;
+            }
+            board.undo();
+            if (proven) {
+                return moves[i];
+            }
+        }
+        return -1;
+    }
+
+    private long key(SearchBoard board) {
+        return board.getSymmetricKey(board.canonicalSymmetry(Symmetry.ALL)) ^ salt;
+    }
+
+    /**
+     * Table slot holding the key, or -1
+     */
+    private int find(long key) {
+        int base = (int) (key & bucketMask) * BUCKET_SIZE;
+        for (int i = base; i < base + BUCKET_SIZE; i++) {
+            if (keys[i] == key && works[i] > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores the numbers of a position, replacing the bucket's entry with
+     * the least work if the key is not there yet
+     */
+    private void store(long key, int proof, int disproof, long work) {
+        int base = (int) (key & bucketMask) * BUCKET_SIZE;
+        int slot = base;
+        boolean same = false;
+        for (int i = base; i < base + BUCKET_SIZE; i++) {
+            if (keys[i] == key && works[i] > 0) {
+                slot = i;
+                same = true;
+                break;
+            }
+            if (works[i] < works[slot]) {
+                slot = i;
+            }
+        }
+        keys[slot] = key;
+        proofs[slot] = proof;
+        disproofs[slot] = disproof;
+        works[slot] = (int) Math.min((same ? works[slot] : 0) + work, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Stops searches after the given number of nodes, which then report
+     * an unknown result
+     */
+    public void setNodeLimit(long nodeLimit) {
+        if (nodeLimit < 1) {
+            throw new IllegalArgumentException("Node limit must be at least 1");
+        }
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Nodes expanded by the last solve or proveWin
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Distinct positions in the last proof found by proveWin, or 0
+     */
+    public int getProofSize() {
+        return proofSize;
+    }
+
+    /**
+     * Maximum number of positions the table holds
+     */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java tictactoe.ProofNumberSolver m k [megabytes] [proofFile]");
+            return;
+        }
+        int m = Integer.parseInt(args[0]);
+        int k = Integer.parseInt(args[1]);
+        int megabytes = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        ProofNumberSolver solver = new ProofNumberSolver(megabytes);
+        Board board = GameEngine.initialState(m, k);
+
+        long start = System.currentTimeMillis();
+        Result result = solver.solve(board);
+        System.out.println(m + "x" + m + ", k=" + k + ": " + result + " (" + solver.getNodes() + " nodes, " +
+                (System.currentTimeMillis() - start) + "ms)");
+
+        if (args.length > 3 && (result == Result.X_WINS || result == Result.O_WINS)) {
+            char winner = result == Result.X_WINS ? 'X' : 'O';
+            try (Writer out = Files.newBufferedWriter(Path.of(args[3]))) {
+                solver.exportProof(board, winner, out);
+            }
+            System.out.println("Wrote a proof of " + solver.getProofSize() + " positions to " + args[3]);
+        }
+    }
+}
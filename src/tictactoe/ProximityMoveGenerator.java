@@ -0,0 +1,67 @@
+package tictactoe;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates only the empty cells within a Chebyshev radius of a stone, or
+ * the center on an empty board.
+ *
+ * On large boards almost every empty cell is far from the action, so this
+ * cuts the branching factor from m² to a few dozen. The candidate set is
+ * kept on the SearchBoard and updated on play and undo (see
+ * SearchBoard.trackProximity), so generating is a scan over bitboard words
+ * rather than over the neighbourhood of every stone.
+ *
+ * Pruning distant cells makes the search inexact; leave it off where
+ * exact values matter (small boards, tablebase checks).
+ */
+public final class ProximityMoveGenerator implements MoveGenerator {
+    private static final Map<Long, int[][]> NEIGHBOURS = new ConcurrentHashMap<>();
+
+    private final int radius;
+
+    public ProximityMoveGenerator(int radius) {
+        if (radius < 1) {
+            throw new IllegalArgumentException("Radius must be at least 1");
+        }
+        this.radius = radius;
+    }
+
+    @Override
+    public int generate(SearchBoard board, int[] buffer) {
+        board.trackProximity(radius);
+        return board.candidateCells(buffer);
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Cells within the Chebyshev radius of each cell of an m×m board, the
+     * cell itself excluded. Shared between boards; do not modify.
+     */
+    static int[][] neighbours(int m, int radius) {
+        return NEIGHBOURS.computeIfAbsent((long) m << 32 | radius, key -> {
+            int[][] neighbours = new int[m * m][];
+            for (int row = 0; row < m; row++) {
+                for (int col = 0; col < m; col++) {
+                    int rows = Math.min(m - 1, row + radius) - Math.max(0, row - radius) + 1;
+                    int cols = Math.min(m - 1, col + radius) - Math.max(0, col - radius) + 1;
+                    int[] cells = new int[rows * cols - 1];
+                    int n = 0;
+                    for (int r = Math.max(0, row - radius); r <= Math.min(m - 1, row + radius); r++) {
+                        for (int c = Math.max(0, col - radius); c <= Math.min(m - 1, col + radius); c++) {
+                            if (r != row || c != col) {
+                                cells[n++] = r * m + c;
+                            }
+                        }
+                    }
+                    neighbours[row * m + col] = cells;
+                }
+            }
+            return neighbours;
+        });
+    }
+}
@@ -0,0 +1,411 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * Mutable board used on the search hot path.
+ * Moves are applied in place with play and reverted with undo, using a
+ * move stack, so walking the game tree allocates nothing per node.
+ * Cells are addressed by index (row * m + col) and stored as X/O bitboards.
+ *
+ * The immutable Board remains the public snapshot type; a SearchBoard is
+ * created from a Board at the start of a search.
+ *
+ * The board also keeps the X and O counts of every k-window (see
+ * LineGeometry), updating only the windows through the changed cell on
+ * play and undo. A count reaching k is a win, and the counts of the
+ * windows HeuristicEvaluator scores give its score without a rescan.
+ */
+public class SearchBoard implements Position {
+    private final int m;
+    private final int k;
+    private final int cellCount;
+    private final long[] xWords;
+    private final long[] oWords;
+    private final int[] moveStack; // cells played on this board, most recent last
+    private final char[] winnerStack; // winner before each stacked move, restored by undo
+    private final long[] stoneKeys; // Zobrist keys, X at [cell], O at [cellCount + cell]
+    private final int[][] symmetryMaps; // Symmetry.cellMaps(m)
+    private final long[] symmetricKeys; // Zobrist key of each of the 8 transformed positions
+    private final LineGeometry geometry;
+    private final int scoredCount; // windows below this index count towards the score
+    private final int[] xCounts; // X marks in each window
+    private final int[] oCounts; // O marks in each window
+    private final double[] powers; // HeuristicEvaluator.powers(k)
+    private double windowScore; // sum of the scores of all windows
+    private int stackSize;
+    private int moveCount;
+    private char winner; // ' ' while nobody has k in a row
+    private int proximityRadius;  // 0 while candidate cells are not tracked
+    private int[][] neighbours;   // ProximityMoveGenerator.neighbours for proximityRadius
+    private int[] nearbyStones;   // stones within proximityRadius of each cell
+    private long[] nearWords;     // cells with at least one stone within proximityRadius
+
+    /**
+     * Creates an empty search board
+     */
+    public SearchBoard(int m, int k) {
+        this.m = m;
+        this.k = k;
+        this.cellCount = m * m;
+        int words = (cellCount + Long.SIZE - 1) / Long.SIZE;
+        this.xWords = new long[words];
+        this.oWords = new long[words];
+        this.moveStack = new int[cellCount];
+        this.winnerStack = new char[cellCount];
+        this.stoneKeys = Zobrist.keys(m);
+        this.symmetryMaps = Symmetry.cellMaps(m);
+        this.symmetricKeys = new long[Symmetry.COUNT];
+        Arrays.fill(symmetricKeys, Zobrist.initialKey(m, k));
+        this.geometry = LineGeometry.of(m, k);
+        this.scoredCount = geometry.getScoredCount();
+        this.xCounts = new int[geometry.getWindowCount()];
+        this.oCounts = new int[xCounts.length];
+        this.powers = HeuristicEvaluator.powers(k);
+        this.windowScore = 0;
+        this.stackSize = 0;
+        this.moveCount = 0;
+        this.winner = ' ';
+    }
+
+    /**
+     * Creates a search board holding the same position as the given board.
+     * Moves already on the board cannot be undone.
+     */
+    public SearchBoard(Board board) {
+        this(board.getSize(), board.getWinCondition());
+        for (int row = 0; row < m; row++) {
+            for (int col = 0; col < m; col++) {
+                char c = board.getCell(row, col);
+                int cell = row * m + col;
+                if (c == 'X') {
+                    xWords[cell >>> 6] |= 1L << cell;
+                    toggleKeys(0, cell);
+                    addStone(xCounts, cell);
+                } else if (c == 'O') {
+                    oWords[cell >>> 6] |= 1L << cell;
+                    toggleKeys(cellCount, cell);
+                    addStone(oCounts, cell);
+                }
+            }
+        }
+        this.moveCount = board.getMoveCount();
+        Character w = board.getWinner();
+        this.winner = w != null ? w : ' ';
+    }
+
+    /**
+     * Places the current player's mark on the given cell.
+     * Only the windows through that cell are checked for a new winner.
+     */
+    public void play(int cell) {
+        long bit = 1L << cell;
+        int word = cell >>> 6;
+        if (((xWords[word] | oWords[word]) & bit) != 0) {
+            throw new IllegalArgumentException("Invalid move: cell already occupied");
+        }
+        boolean completed;
+        if ((moveCount & 1) == 0) {
+            xWords[word] |= bit;
+            toggleKeys(0, cell);
+            completed = addStone(xCounts, cell);
+        } else {
+            oWords[word] |= bit;
+            toggleKeys(cellCount, cell);
+            completed = addStone(oCounts, cell);
+        }
+        winnerStack[stackSize] = winner;
+        moveStack[stackSize++] = cell;
+        moveCount++;
+        if (winner == ' ' && completed) {
+            winner = (moveCount & 1) == 1 ? 'X' : 'O';
+        }
+        if (neighbours != null) {
+            addNearby(cell);
+        }
+    }
+
+    public void play(Move move) {
+        play(move.getRow() * m + move.getCol());
+    }
+
+    /**
+     * Takes back the most recent move played on this board
+     */
+    public void undo() {
+        if (stackSize == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        int cell = moveStack[--stackSize];
+        long bit = ~(1L << cell);
+        xWords[cell >>> 6] &= bit;
+        oWords[cell >>> 6] &= bit;
+        winner = winnerStack[stackSize];
+        moveCount--;
+        if (neighbours != null) {
+            removeNearby(cell);
+        }
+        if ((moveCount & 1) == 0) {
+            toggleKeys(0, cell);
+            removeStone(xCounts, cell);
+        } else {
+            toggleKeys(cellCount, cell);
+            removeStone(oCounts, cell);
+        }
+    }
+
+    /**
+     * Counts a stone in every window through the cell, adjusting the
+     * running score. Returns true if one of those windows is now full.
+     */
+    private boolean addStone(int[] counts, int cell) {
+        boolean completed = false;
+        for (int w : geometry.windowsThrough(cell)) {
+            if (w < scoredCount) {
+                double before = HeuristicEvaluator.windowScore(xCounts[w], oCounts[w], powers);
+                counts[w]++;
+                windowScore += HeuristicEvaluator.windowScore(xCounts[w], oCounts[w], powers) - before;
+            } else {
+                counts[w]++;
+            }
+            completed |= counts[w] == k;
+        }
+        return completed;
+    }
+
+    /**
+     * Reverses addStone
+     */
+    private void removeStone(int[] counts, int cell) {
+        for (int w : geometry.windowsThrough(cell)) {
+            if (w < scoredCount) {
+                double before = HeuristicEvaluator.windowScore(xCounts[w], oCounts[w], powers);
+                counts[w]--;
+                windowScore += HeuristicEvaluator.windowScore(xCounts[w], oCounts[w], powers) - before;
+            } else {
+                counts[w]--;
+            }
+        }
+    }
+
+    /**
+     * Starts keeping the set of empty cells within the given Chebyshev
+     * radius of a stone, updated on every play and undo from now on.
+     * Does nothing if that radius is already tracked.
+     */
+    void trackProximity(int radius) {
+        if (radius == proximityRadius) {
+            return;
+        }
+        proximityRadius = radius;
+        neighbours = ProximityMoveGenerator.neighbours(m, radius);
+        nearbyStones = new int[cellCount];
+        nearWords = new long[xWords.length];
+        for (int w = 0; w < xWords.length; w++) {
+            for (long stones = xWords[w] | oWords[w]; stones != 0; stones &= stones - 1) {
+                addNearby((w << 6) + Long.numberOfTrailingZeros(stones));
+            }
+        }
+    }
+
+    /**
+     * Writes the tracked candidate cells (see trackProximity), in ascending
+     * order, into the buffer and returns how many were written. On a board
+     * without stones the only candidate is the center; if no empty cell is
+     * near a stone, all empty cells are.
+     */
+    int candidateCells(int[] buffer) {
+        if (moveCount == 0) {
+            buffer[0] = (m / 2) * m + m / 2;
+            return 1;
+        }
+        int count = 0;
+        for (int w = 0; w < nearWords.length; w++) {
+            for (long near = nearWords[w] & ~(xWords[w] | oWords[w]); near != 0; near &= near - 1) {
+                buffer[count++] = (w << 6) + Long.numberOfTrailingZeros(near);
+            }
+        }
+        // Stones whose surroundings are all filled leave distant cells only
+        return count > 0 ? count : emptyCells(buffer);
+    }
+
+    private void addNearby(int cell) {
+        for (int c : neighbours[cell]) {
+            if (nearbyStones[c]++ == 0) {
+                nearWords[c >>> 6] |= 1L << c;
+            }
+        }
+    }
+
+    private void removeNearby(int cell) {
+        for (int c : neighbours[cell]) {
+            if (--nearbyStones[c] == 0) {
+                nearWords[c >>> 6] &= ~(1L << c);
+            }
+        }
+    }
+
+    /**
+     * XORs a stone into (or out of) the key of every transformed position
+     */
+    private void toggleKeys(int playerOffset, int cell) {
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            symmetricKeys[s] ^= stoneKeys[playerOffset + symmetryMaps[s][cell]];
+        }
+    }
+
+    /**
+     * Writes the indices of all empty cells, in ascending order, into the
+     * buffer and returns how many were written
+     */
+    public int emptyCells(int[] buffer) {
+        int count = 0;
+        for (int w = 0; w < xWords.length; w++) {
+            long empty = ~(xWords[w] | oWords[w]);
+            if (w == xWords.length - 1 && (cellCount & 63) != 0) {
+                empty &= (1L << cellCount) - 1;
+            }
+            while (empty != 0) {
+                buffer[count++] = (w << 6) + Long.numberOfTrailingZeros(empty);
+                empty &= empty - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Zobrist key of the current position, maintained by play and undo
+     */
+    public long getZobristKey() {
+        return symmetricKeys[Symmetry.IDENTITY];
+    }
+
+    /**
+     * Zobrist key of the position transformed by the given symmetry
+     */
+    public long getSymmetricKey(int symmetry) {
+        return symmetricKeys[symmetry];
+    }
+
+    /**
+     * Returns the transform, among the given ones, whose key is smallest.
+     * That key is the canonical key of the position.
+     */
+    public int canonicalSymmetry(int[] transforms) {
+        int best = transforms[0];
+        for (int i = 1; i < transforms.length; i++) {
+            if (symmetricKeys[transforms[i]] < symmetricKeys[best]) {
+                best = transforms[i];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * HeuristicEvaluator score of the current position in constant time
+     */
+    public double getHeuristicScore() {
+        if (winner != ' ') {
+            return winner == 'X' ? 10000 : -10000;
+        }
+        if (isFull()) {
+            return 0;
+        }
+        return windowScore;
+    }
+
+    /**
+     * X stones as a bitboard; only complete for boards of at most 64 cells
+     */
+    long getXBits() {
+        return xWords[0];
+    }
+
+    /**
+     * O stones as a bitboard; only complete for boards of at most 64 cells
+     */
+    long getOBits() {
+        return oWords[0];
+    }
+
+    /**
+     * The player's stone count in every LineGeometry window. This is the
+     * board's own array, kept current by play and undo; do not modify it.
+     */
+    int[] getWindowCounts(char player) {
+        return player == 'X' ? xCounts : oCounts;
+    }
+
+    LineGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Number of moves played since this board was created
+     */
+    public int getPly() {
+        return stackSize;
+    }
+
+    /**
+     * Cell of the most recent move played on this board, or -1
+     */
+    public int getLastCell() {
+        return stackSize == 0 ? -1 : moveStack[stackSize - 1];
+    }
+
+    public boolean isEmpty(int cell) {
+        return ((xWords[cell >>> 6] | oWords[cell >>> 6]) >>> cell & 1L) == 0;
+    }
+
+    @Override
+    public int getSize() {
+        return m;
+    }
+
+    @Override
+    public int getWinCondition() {
+        return k;
+    }
+
+    @Override
+    public char getCurrentPlayer() {
+        return (moveCount & 1) == 0 ? 'X' : 'O';
+    }
+
+    @Override
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    @Override
+    public char getCell(int row, int col) {
+        return getCell(row * m + col);
+    }
+
+    @Override
+    public char getCell(int cell) {
+        if ((xWords[cell >>> 6] >>> cell & 1L) != 0) return 'X';
+        if ((oWords[cell >>> 6] >>> cell & 1L) != 0) return 'O';
+        return ' ';
+    }
+
+    @Override
+    public boolean isEmpty(int row, int col) {
+        return isEmpty(row * m + col);
+    }
+
+    @Override
+    public boolean isFull() {
+        return moveCount == cellCount;
+    }
+
+    @Override
+    public Character getWinner() {
+        return winner == ' ' ? null : winner;
+    }
+}
@@ -0,0 +1,96 @@
+package tictactoe;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits of one SearchEngine search: a time budget, a node limit, a
+ * maximum depth and a cancellation flag.
+ *
+ * The search deepens one ply at a time and stops at the first limit it
+ * reaches, returning the best move of the deepest completed iteration.
+ * The first iteration (one ply) always completes, so a move is returned
+ * even if the search is cancelled at once. The node limit counts the
+ * nodes of all search threads. Limits are checked every few hundred
+ * nodes, so it may be overshot slightly.
+ *
+ * cancel() may be called from any thread. A context belongs to one
+ * search; make a new one for each call.
+ */
+public final class SearchContext {
+    private long timeLimitMillis; // 0 = no time limit
+    private long nodeLimit = Long.MAX_VALUE;
+    private int maxDepth = Integer.MAX_VALUE;
+    private volatile boolean cancelled;
+    private final AtomicLong nodes = new AtomicLong(); // searched so far, over all threads
+
+    /**
+     * Search time in milliseconds, counted from the start of the search;
+     * 0 (the default) means no limit
+     */
+    public void setTimeLimit(long timeLimitMillis) {
+        if (timeLimitMillis < 0) {
+            throw new IllegalArgumentException("Time limit must not be negative");
+        }
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    public long getTimeLimit() {
+        return timeLimitMillis;
+    }
+
+    /**
+     * Nodes after which the search stops; unlimited by default
+     */
+    public void setNodeLimit(long nodeLimit) {
+        if (nodeLimit < 1) {
+            throw new IllegalArgumentException("Node limit must be at least 1");
+        }
+        this.nodeLimit = nodeLimit;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+
+    /**
+     * Deepest iteration to search; unlimited (to the end of the game) by
+     * default
+     */
+    public void setMaxDepth(int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1");
+        }
+        this.maxDepth = maxDepth;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Asks the search to stop as soon as possible and return its best move
+     * so far
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Adds nodes searched by one thread and returns the total so far
+     */
+    long addNodes(long count) {
+        return nodes.addAndGet(count);
+    }
+
+    /**
+     * Whether a search that has visited the given number of nodes should
+     * stop (the deadline is checked by the agent)
+     */
+    boolean shouldStop(long nodes) {
+        return cancelled || nodes >= nodeLimit;
+    }
+}
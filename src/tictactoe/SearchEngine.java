@@ -0,0 +1,153 @@
+package tictactoe;
+
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Thread-safe alpha-beta search service.
+ *
+ * The agents keep their search state in fields, so one agent cannot serve
+ * two searches at once. A SearchEngine can: each search(board, context)
+ * call runs on one of the engine's threads with an idle agent (made on
+ * demand and reused afterwards) and completes its future with a
+ * SearchResult. All agents share the engine's transposition table, so
+ * concurrent and later searches profit from each other's work.
+ *
+ * A search is stopped early with context.cancel() or by cancelling its
+ * future; either way it stops at its next limit check. The result holds
+ * the best move of the last completed iteration, but a cancelled future
+ * only reports the cancellation, so cancel the context to keep the move.
+ *
+ * Configuration setters affect searches started afterwards.
+ */
+public final class SearchEngine implements AutoCloseable {
+    private final ExecutorService pool;
+    private final int threads;
+    private final Queue<AlphaBetaAgent> idleAgents = new ConcurrentLinkedQueue<>();
+    private volatile TranspositionTable table;
+    private volatile boolean useMoveOrdering = true;
+    private volatile boolean usePvs;
+    private volatile MoveGenerator moveGenerator = MoveGenerator.ALL_EMPTY;
+    private volatile OpeningBook openingBook;
+    private volatile Tablebase tablebase;
+
+    /**
+     * Creates an engine running one search per available processor
+     */
+    public SearchEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an engine running up to the given number of searches at
+     * once; further searches wait for a free thread. Its threads are
+     * daemon threads, released by close().
+     */
+    public SearchEngine(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.threads = threads;
+        this.table = new HeapTranspositionTable();
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "search-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a search of the position within the context's limits
+     */
+    public CompletableFuture<SearchResult> search(Board board, SearchContext context) {
+        CompletableFuture<SearchResult> future = CompletableFuture.supplyAsync(() -> run(board, context), pool);
+        future.whenComplete((result, failure) -> {
+            if (failure instanceof CancellationException) {
+                context.cancel();
+            }
+        });
+        return future;
+    }
+
+    private SearchResult run(Board board, SearchContext context) {
+        AlphaBetaAgent agent = idleAgents.poll();
+        if (agent == null) {
+            agent = new AlphaBetaAgent(Integer.MAX_VALUE, true, false, table);
+        }
+        try {
+            agent.setTranspositionTable(table);
+            agent.setMoveOrdering(useMoveOrdering);
+            agent.setPvs(usePvs);
+            agent.setMoveGenerator(moveGenerator);
+            agent.setOpeningBook(openingBook);
+            agent.setTablebase(tablebase);
+
+            Move move = agent.alphaBeta(board, context);
+            SearchStats stats = agent.getStats();
+            int depth = agent.getCompletedDepth();
+            int[] pv = depth > 0 ? agent.getPrincipalVariation() : new int[0];
+            return new SearchResult(move, agent.getLastValue(), depth, pv, board.getSize(), stats,
+                                    context.shouldStop(stats.getNodes()));
+        } finally {
+            idleAgents.add(agent);
+        }
+    }
+
+    /**
+     * Replaces the shared transposition table; null turns it off
+     */
+    public void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    public void setMoveOrdering(boolean useMoveOrdering) {
+        this.useMoveOrdering = useMoveOrdering;
+    }
+
+    /**
+     * Searches with Principal Variation Search and aspiration windows
+     * instead of plain alpha-beta
+     */
+    public void setPvs(boolean usePvs) {
+        this.usePvs = usePvs;
+    }
+
+    public void setMoveGenerator(MoveGenerator moveGenerator) {
+        if (moveGenerator == null) {
+            throw new IllegalArgumentException("Move generator must not be null");
+        }
+        this.moveGenerator = moveGenerator;
+    }
+
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Number of searches that can run at once
+     */
+    public int getThreadCount() {
+        return threads;
+    }
+
+    /**
+     * Releases the engine's threads once the searches already started
+     * have finished; cancel their contexts to finish them sooner
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,83 @@
+package tictactoe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event spanning one search. Recorded only while a
+ * recording with tictactoe.Search enabled is running, e.g. with
+ * -XX:StartFlightRecording; otherwise it costs a few field writes.
+ */
+@Name("tictactoe.Search")
+@Label("Search")
+@Category("Tic-Tac-Toe")
+@Description("One move search by an agent")
+@StackTrace(false)
+final class SearchEvent extends Event {
+    @Label("Agent")
+    String agent;
+
+    @Label("Board Size")
+    int boardSize;
+
+    @Label("Win Condition")
+    int winCondition;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Threads")
+    int threads;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Leaf Evaluations")
+    long leafEvaluations;
+
+    @Label("Nodes Per Second")
+    double nodesPerSecond;
+
+    @Label("Effective Branching Factor")
+    double branchingFactor;
+
+    @Label("First Move Cutoff Rate")
+    double firstMoveCutoffRate;
+
+    @Label("Table Probes")
+    long tableProbes;
+
+    @Label("Table Hits")
+    long tableHits;
+
+    @Label("Move")
+    @Description("Chosen cell as row * size + col, or -1")
+    int move;
+
+    /**
+     * Fills the event from the finished search's statistics and commits it
+     */
+    void complete(String agentName, Board board, int threadCount, SearchStats stats, Move chosen) {
+        if (!shouldCommit()) {
+            return;
+        }
+        agent = agentName;
+        boardSize = board.getSize();
+        winCondition = board.getWinCondition();
+        depth = stats.getDepth();
+        threads = threadCount;
+        nodes = stats.getNodes();
+        leafEvaluations = stats.getLeafEvaluations();
+        nodesPerSecond = stats.getNodesPerSecond();
+        branchingFactor = stats.getEffectiveBranchingFactor();
+        firstMoveCutoffRate = stats.getFirstMoveCutoffRate();
+        tableProbes = stats.getTableProbes();
+        tableHits = stats.getTableHits();
+        move = chosen == null ? -1 : chosen.getRow() * boardSize + chosen.getCol();
+        commit();
+    }
+}
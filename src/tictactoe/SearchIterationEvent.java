@@ -0,0 +1,34 @@
+package tictactoe;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event spanning one completed iteration of an
+ * iterative deepening search (or the single iteration of a fixed-depth
+ * search)
+ */
+@Name("tictactoe.SearchIteration")
+@Label("Search Iteration")
+@Category("Tic-Tac-Toe")
+@Description("One completed depth of a search")
+@StackTrace(false)
+final class SearchIterationEvent extends Event {
+    @Label("Depth")
+    int depth;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Value")
+    @Description("Value of the best root move, from X's point of view")
+    double value;
+
+    @Label("Best Move")
+    @Description("Cell as row * size + col")
+    int bestMove;
+}
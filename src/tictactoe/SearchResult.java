@@ -0,0 +1,79 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a SearchEngine search: the chosen move, its value from X's
+ * point of view, the principal variation and the search statistics
+ */
+public final class SearchResult {
+    private final Move move;
+    private final double value;
+    private final int depth;
+    private final List<Move> principalVariation;
+    private final SearchStats stats;
+    private final boolean stopped;
+
+    SearchResult(Move move, double value, int depth, int[] pvCells, int m, SearchStats stats, boolean stopped) {
+        this.move = move;
+        this.value = value;
+        this.depth = depth;
+        List<Move> pv = new ArrayList<>(pvCells.length);
+        for (int cell : pvCells) {
+            pv.add(Move.ofCell(cell, m));
+        }
+        this.principalVariation = Collections.unmodifiableList(pv);
+        this.stats = stats;
+        this.stopped = stopped;
+    }
+
+    /**
+     * Best move found, or null if the game was already over
+     */
+    public Move getMove() {
+        return move;
+    }
+
+    /**
+     * Value of the move in the deepest completed iteration, from X's point
+     * of view; NaN for book moves
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Depth of the deepest completed iteration; 0 for book and forced-win
+     * moves
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Expected line of play from the position, starting with getMove();
+     * empty for book and forced-win moves
+     */
+    public List<Move> getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Whether the search was cut short by cancellation or the node limit
+     * rather than finishing or running out of time
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    @Override
+    public String toString() {
+        return move + " (value " + value + ", depth " + depth + ", pv " + principalVariation + ")";
+    }
+}
@@ -0,0 +1,153 @@
+package tictactoe;
+
+/**
+ * Counters describing one search, as returned by the agents' getStats().
+ *
+ * The agents update the counters directly while searching; callers only
+ * read them. Parallel searches report the sum over all threads, except the
+ * per-depth figures, which describe the main search's iterations.
+ */
+public final class SearchStats {
+    long nodes;
+    long leafEvaluations; // terminal positions and depth-limit evaluations
+    long tableProbes;
+    long tableHits;       // probes that found an entry for the position
+    long elapsedNanos;
+    final long[] cutoffsByMoveIndex; // cutoffs by position of the move in the move list
+    final long[] depthNodes;         // nodes of each completed iteration, by depth
+    final long[] depthNanos;         // time of each completed iteration, by depth
+
+    SearchStats(int cellCount) {
+        this.cutoffsByMoveIndex = new long[cellCount];
+        this.depthNodes = new long[cellCount + 1];
+        this.depthNanos = new long[cellCount + 1];
+    }
+
+    /**
+     * Records a completed iteration to the given depth
+     */
+    void recordIteration(int depth, long iterationNodes, long iterationNanos) {
+        depthNodes[depth] = iterationNodes;
+        depthNanos[depth] = iterationNanos;
+    }
+
+    /**
+     * Adds another thread's counters to these
+     */
+    void add(SearchStats other) {
+        leafEvaluations += other.leafEvaluations;
+        tableProbes += other.tableProbes;
+        tableHits += other.tableHits;
+        for (int i = 0; i < cutoffsByMoveIndex.length && i < other.cutoffsByMoveIndex.length; i++) {
+            cutoffsByMoveIndex[i] += other.cutoffsByMoveIndex[i];
+        }
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getLeafEvaluations() {
+        return leafEvaluations;
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    /**
+     * Fraction of table probes that found an entry, or 0 without probes
+     */
+    public double getTableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Number of beta cutoffs caused by the moveIndex-th move searched at a
+     * node (0 is the first move)
+     */
+    public long getCutoffs(int moveIndex) {
+        return moveIndex < cutoffsByMoveIndex.length ? cutoffsByMoveIndex[moveIndex] : 0;
+    }
+
+    public long getTotalCutoffs() {
+        long total = 0;
+        for (long cutoffs : cutoffsByMoveIndex) {
+            total += cutoffs;
+        }
+        return total;
+    }
+
+    /**
+     * Fraction of cutoffs caused by the first move searched, a measure of
+     * move ordering quality; 0 if there were no cutoffs
+     */
+    public double getFirstMoveCutoffRate() {
+        long total = getTotalCutoffs();
+        return total == 0 ? 0 : (double) cutoffsByMoveIndex[0] / total;
+    }
+
+    /**
+     * Deepest completed iteration, or 0 if none completed
+     */
+    public int getDepth() {
+        for (int depth = depthNodes.length - 1; depth > 0; depth--) {
+            if (depthNanos[depth] > 0) {
+                return depth;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Nodes searched by the iteration to the given depth, or 0 if it did
+     * not complete
+     */
+    public long getDepthNodes(int depth) {
+        return depth < depthNodes.length ? depthNodes[depth] : 0;
+    }
+
+    /**
+     * Time spent in the iteration to the given depth, or 0 if it did not
+     * complete
+     */
+    public long getDepthNanos(int depth) {
+        return depth < depthNanos.length ? depthNanos[depth] : 0;
+    }
+
+    /**
+     * Effective branching factor: the growth in nodes between the last
+     * two completed iterations, or nodes^(1/depth) after a single
+     * iteration
+     */
+    public double getEffectiveBranchingFactor() {
+        int depth = getDepth();
+        if (depth == 0) {
+            return 0;
+        }
+        if (depth > 1 && depthNodes[depth - 1] > 0) {
+            return (double) depthNodes[depth] / depthNodes[depth - 1];
+        }
+        return Math.pow(Math.max(1, depthNodes[depth]), 1.0 / depth);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("nodes: %d, nps: %.0f, leaves: %d, ebf: %.2f, first-move cutoffs: %.1f%%, "
+                        + "table hits: %d/%d",
+                nodes, getNodesPerSecond(), leafEvaluations, getEffectiveBranchingFactor(),
+                100 * getFirstMoveCutoffRate(), tableHits, tableProbes);
+    }
+}
@@ -0,0 +1,88 @@
+package tictactoe;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The 8 symmetries of an m×m board (rotations and reflections) as cell
+ * index maps. Positions that differ only by a symmetry have the same game
+ * value, so searches key their tables on the smallest of the 8
+ * transformed Zobrist keys (the canonical key). Moves stored under a
+ * canonical key are mapped back through the inverse transform.
+ */
+final class Symmetry {
+    static final int COUNT = 8;
+    static final int IDENTITY = 0;
+    static final int TRANSPOSE = 5;
+
+    /** All 8 transforms; valid whenever only game-theoretic values are compared */
+    static final int[] ALL = {0, 1, 2, 3, 4, 5, 6, 7};
+
+    /** Identity only; turns symmetry reduction off */
+    static final int[] NONE = {IDENTITY};
+
+    /** Transforms that also preserve HeuristicEvaluator scores when k < m */
+    private static final int[] IDENTITY_AND_TRANSPOSE = {IDENTITY, TRANSPOSE};
+
+    private static final ConcurrentHashMap<Integer, int[][]> MAPS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Integer, int[][]> INVERSES = new ConcurrentHashMap<>();
+
+    private Symmetry() {
+    }
+
+    /**
+     * Returns cell maps for an m×m board: maps[s][cell] is where transform s
+     * sends the cell. Transform 0 is the identity, 1-3 rotate by 90, 180
+     * and 270 degrees, 4 mirrors columns, 5 transposes, 6 mirrors rows and
+     * 7 reflects in the anti-diagonal.
+     */
+    static int[][] cellMaps(int m) {
+        return MAPS.computeIfAbsent(m, Symmetry::buildMaps);
+    }
+
+    /**
+     * Returns inverse maps: inverses[s][maps[s][cell]] == cell
+     */
+    static int[][] inverseMaps(int m) {
+        return INVERSES.computeIfAbsent(m, size -> {
+            int[][] maps = cellMaps(size);
+            int[][] inverses = new int[COUNT][size * size];
+            for (int s = 0; s < COUNT; s++) {
+                for (int cell = 0; cell < size * size; cell++) {
+                    inverses[s][maps[s][cell]] = cell;
+                }
+            }
+            return inverses;
+        });
+    }
+
+    /**
+     * Transforms under which depth-limited search values are invariant.
+     * HeuristicEvaluator scores row windows starting at column 0, column
+     * windows starting at row 0 and every diagonal window. When k == m that
+     * set is closed under all 8 symmetries; otherwise only the transpose
+     * maps it onto itself.
+     */
+    static int[] searchTransforms(int m, int k) {
+        return k == m ? ALL : IDENTITY_AND_TRANSPOSE;
+    }
+
+    private static int[][] buildMaps(int m) {
+        int[][] maps = new int[COUNT][m * m];
+        for (int row = 0; row < m; row++) {
+            for (int col = 0; col < m; col++) {
+                int cell = row * m + col;
+                int r = m - 1 - row;
+                int c = m - 1 - col;
+                maps[0][cell] = row * m + col;
+                maps[1][cell] = col * m + r;
+                maps[2][cell] = r * m + c;
+                maps[3][cell] = c * m + row;
+                maps[4][cell] = row * m + c;
+                maps[5][cell] = col * m + row;
+                maps[6][cell] = r * m + col;
+                maps[7][cell] = c * m + r;
+            }
+        }
+        return maps;
+    }
+}
@@ -0,0 +1,278 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Endgame tablebase: the game-theoretic result of every position with at
+ * most maxEmpties empty cells on an m×m board, as built by
+ * TablebaseGenerator.
+ *
+ * Each position takes one byte: the result from X's point of view in the
+ * low 2 bits (DRAW, X_WINS, O_WINS, or INVALID for positions that already
+ * contain a line and so are never probed) and the number of plies to the
+ * end of the game under best play in the upper 6 bits.
+ *
+ * Positions are stored densely, one layer per number of empty cells. Within
+ * a layer a position is numbered by the combinatorial rank of its empty
+ * cells, then of its X cells among the occupied ones, so probing is a
+ * single pass over the board bits with no lookups and no allocation.
+ *
+ * A tablebase file is opened with open, which maps it read-only; the
+ * search reads it through the MappedByteBuffer. Limited to boards of at
+ * most 64 cells and files under 2 GB.
+ */
+public final class Tablebase {
+    public static final int DRAW = 0;
+    public static final int X_WINS = 1;
+    public static final int O_WINS = 2;
+    public static final int INVALID = 3;
+
+    static final int MAGIC = 0x54544254; // "TTBT"
+    static final int HEADER_BYTES = 16;  // magic, m, k, maxEmpties
+    private static final int DISTANCE_SHIFT = 2;
+
+    private final int m;
+    private final int k;
+    private final int maxEmpties;
+    private final int cellCount;
+    private final long[][] binomial;  // binomial[n][r] = n choose r, 0 if r > n
+    private final long[] layerOffsets; // first entry of each layer; [maxEmpties + 1] = total
+    private final ByteBuffer entries;
+
+    Tablebase(int m, int k, int maxEmpties, ByteBuffer entries) {
+        if (m * m > Long.SIZE) {
+            throw new IllegalArgumentException("Tablebases support boards of at most 64 cells");
+        }
+        if (maxEmpties < 0 || maxEmpties > m * m) {
+            throw new IllegalArgumentException("Invalid number of empty cells: " + maxEmpties);
+        }
+        this.m = m;
+        this.k = k;
+        this.maxEmpties = maxEmpties;
+        this.cellCount = m * m;
+        this.binomial = binomials(cellCount);
+        this.layerOffsets = new long[maxEmpties + 2];
+        for (int empties = 0; empties <= maxEmpties; empties++) {
+            layerOffsets[empties + 1] = layerOffsets[empties] + layerSize(empties);
+        }
+        if (entries != null && entries.capacity() < layerOffsets[maxEmpties + 1]) {
+            throw new IllegalArgumentException("Tablebase data is truncated");
+        }
+        this.entries = entries;
+    }
+
+    /**
+     * Maps a tablebase file written by TablebaseGenerator
+     */
+    public static Tablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IOException("Not a tablebase file: " + file);
+            }
+            int m = header.getInt();
+            int k = header.getInt();
+            int maxEmpties = header.getInt();
+            MappedByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY,
+                    HEADER_BYTES, channel.size() - HEADER_BYTES);
+            return new Tablebase(m, k, maxEmpties, entries);
+        }
+    }
+
+    /**
+     * Number of positions with the given number of empty cells, whether
+     * reachable or not
+     */
+    long layerSize(int empties) {
+        int stones = cellCount - empties;
+        return binomial[cellCount][empties] * binomial[stones][(stones + 1) / 2];
+    }
+
+    /**
+     * Total number of entries, i.e. the size of the data in bytes
+     */
+    public long getEntryCount() {
+        return layerOffsets[maxEmpties + 1];
+    }
+
+    /**
+     * Returns the entry of a position, or -1 if it is not covered (other
+     * board size or win condition, or too many empty cells)
+     */
+    public int probe(Board board) {
+        if (board.getSize() != m || board.getWinCondition() != k) {
+            return -1;
+        }
+        long xBits = 0;
+        long oBits = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            char c = board.getCell(cell / m, cell % m);
+            if (c == 'X') xBits |= 1L << cell;
+            else if (c == 'O') oBits |= 1L << cell;
+        }
+        return probe(xBits, oBits);
+    }
+
+    /**
+     * Same as probe(Board), reading the search board's bitboards directly
+     */
+    int probe(SearchBoard board) {
+        if (board.getSize() != m || board.getWinCondition() != k) {
+            return -1;
+        }
+        return probe(board.getXBits(), board.getOBits());
+    }
+
+    private int probe(long xBits, long oBits) {
+        long empty = ~(xBits | oBits) & fullMask();
+        int empties = Long.bitCount(empty);
+        if (empties > maxEmpties) {
+            return -1;
+        }
+        return entries.get((int) index(empty, xBits)) & 0xFF;
+    }
+
+    /**
+     * Index of a position among all entries, given its empty cells and X
+     * cells
+     */
+    long index(long empty, long xBits) {
+        int empties = Long.bitCount(empty);
+        int stones = cellCount - empties;
+        long emptyRank = 0;
+        long xRank = 0;
+        int emptySeen = 0;
+        int xSeen = 0;
+        int occupiedSeen = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if ((empty >>> cell & 1L) != 0) {
+                emptyRank += binomial[cell][++emptySeen];
+            } else {
+                if ((xBits >>> cell & 1L) != 0) {
+                    xRank += binomial[occupiedSeen][++xSeen];
+                }
+                occupiedSeen++;
+            }
+        }
+        return layerOffsets[empties] + emptyRank * binomial[stones][(stones + 1) / 2] + xRank;
+    }
+
+    /**
+     * Inverse of index within a layer: returns the empty-cell mask of the
+     * position at offset in the layer and stores its X mask in xOut[0]
+     */
+    long unrank(int empties, long offset, long[] xOut) {
+        int stones = cellCount - empties;
+        long xCombinations = binomial[stones][(stones + 1) / 2];
+        long emptyRank = offset / xCombinations;
+        long xRank = offset % xCombinations;
+
+        long empty = unrankSet(emptyRank, empties, cellCount);
+        long occupiedX = unrankSet(xRank, (stones + 1) / 2, stones);
+
+        // Spread the X set (numbered over occupied cells) onto board cells
+        long xBits = 0;
+        int occupiedSeen = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if ((empty >>> cell & 1L) == 0) {
+                if ((occupiedX >>> occupiedSeen & 1L) != 0) {
+                    xBits |= 1L << cell;
+                }
+                occupiedSeen++;
+            }
+        }
+        xOut[0] = xBits;
+        return empty;
+    }
+
+    /**
+     * The size-element subset of [0, n) with the given combinatorial rank
+     */
+    private long unrankSet(long rank, int size, int n) {
+        long set = 0;
+        int c = n - 1;
+        for (int i = size; i > 0; i--) {
+            while (binomial[c][i] > rank) {
+                c--;
+            }
+            set |= 1L << c;
+            rank -= binomial[c][i];
+            c--;
+        }
+        return set;
+    }
+
+    long fullMask() {
+        return cellCount == Long.SIZE ? -1L : (1L << cellCount) - 1;
+    }
+
+    long getLayerOffset(int empties) {
+        return layerOffsets[empties];
+    }
+
+    ByteBuffer getEntries() {
+        return entries;
+    }
+
+    public int getSize() {
+        return m;
+    }
+
+    public int getWinCondition() {
+        return k;
+    }
+
+    /**
+     * Largest number of empty cells covered
+     */
+    public int getMaxEmpties() {
+        return maxEmpties;
+    }
+
+    static int entry(int result, int distance) {
+        return distance << DISTANCE_SHIFT | result;
+    }
+
+    /**
+     * Result of an entry: DRAW, X_WINS, O_WINS or INVALID
+     */
+    public static int result(int entry) {
+        return entry & 3;
+    }
+
+    /**
+     * Plies to the end of the game under best play
+     */
+    public static int distance(int entry) {
+        return entry >>> DISTANCE_SHIFT;
+    }
+
+    /**
+     * Result as a GameEngine utility: +1 if X wins, -1 if O wins, else 0
+     */
+    public static int utility(int entry) {
+        int result = entry & 3;
+        return result == X_WINS ? 1 : result == O_WINS ? -1 : 0;
+    }
+
+    private static long[][] binomials(int n) {
+        long[][] c = new long[n + 1][n + 2];
+        for (int i = 0; i <= n; i++) {
+            c[i][0] = 1;
+            for (int j = 1; j <= i; j++) {
+                c[i][j] = c[i - 1][j - 1] + (j <= i - 1 ? c[i - 1][j] : 0);
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,212 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.LongStream;
+
+/**
+ * Offline retrograde solver that builds a Tablebase.
+ *
+ * Layers are solved in order of increasing empty cells, starting from the
+ * full board, so every child of a position is already known when the
+ * position is solved. Within a layer positions are independent and are
+ * solved in parallel. Only one position of each symmetry class is solved;
+ * its entry is copied to the other (up to 7) positions of the class.
+ *
+ * Usage: java tictactoe.TablebaseGenerator m k maxEmpties file
+ */
+public final class TablebaseGenerator {
+    private static final int WIN_SCORE = 1000;
+
+    private final Tablebase tablebase;
+    private final byte[] data;
+    private final int cellCount;
+    private final long[] lines;          // mask of every window
+    private final long[][] linesThrough; // window masks through each cell
+    private final int[][] symmetryMaps;
+
+    private TablebaseGenerator(int m, int k, int maxEmpties) {
+        Tablebase sizing = new Tablebase(m, k, maxEmpties, null);
+        long total = sizing.getEntryCount();
+        if (total > Integer.MAX_VALUE - Tablebase.HEADER_BYTES) {
+            throw new IllegalArgumentException("Tablebase for " + m + "x" + m + " with " + maxEmpties
+                    + " empty cells would need " + total + " bytes; the limit is 2 GB");
+        }
+        this.data = new byte[(int) total];
+        this.tablebase = new Tablebase(m, k, maxEmpties, ByteBuffer.wrap(data));
+        this.cellCount = m * m;
+        this.symmetryMaps = Symmetry.cellMaps(m);
+
+        LineGeometry geometry = LineGeometry.of(m, k);
+        int[] cells = geometry.getWindowCells();
+        this.lines = new long[geometry.getWindowCount()];
+        for (int w = 0; w < lines.length; w++) {
+            for (int j = w * k; j < w * k + k; j++) {
+                lines[w] |= 1L << cells[j];
+            }
+        }
+        this.linesThrough = new long[cellCount][];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int[] windows = geometry.windowsThrough(cell);
+            linesThrough[cell] = new long[windows.length];
+            for (int i = 0; i < windows.length; i++) {
+                linesThrough[cell][i] = lines[windows[i]];
+            }
+        }
+    }
+
+    /**
+     * Solves all positions with at most maxEmpties empty cells
+     */
+    public static Tablebase generate(int m, int k, int maxEmpties) {
+        TablebaseGenerator generator = new TablebaseGenerator(m, k, maxEmpties);
+        for (int empties = 0; empties <= maxEmpties; empties++) {
+            int layer = empties;
+            LongStream.range(0, generator.tablebase.layerSize(empties))
+                      .parallel()
+                      .forEach(offset -> generator.solve(layer, offset));
+        }
+        return generator.tablebase;
+    }
+
+    /**
+     * Writes a generated tablebase to a file that Tablebase.open can map
+     */
+    public static void write(Tablebase tablebase, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(Tablebase.MAGIC)
+              .putInt(tablebase.getSize())
+              .putInt(tablebase.getWinCondition())
+              .putInt(tablebase.getMaxEmpties())
+              .flip();
+        ByteBuffer entries = tablebase.getEntries().duplicate();
+        entries.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (entries.hasRemaining()) {
+                channel.write(entries);
+            }
+        }
+    }
+
+    /**
+     * Solves one position if it is the representative of its symmetry
+     * class, and stores the entry for the whole class
+     */
+    private void solve(int empties, long offset) {
+        long[] xOut = new long[1];
+        long empty = tablebase.unrank(empties, offset, xOut);
+        long xBits = xOut[0];
+        long own = tablebase.getLayerOffset(empties) + offset;
+
+        // Positions that already contain a line are never probed
+        long oBits = ~(empty | xBits) & tablebase.fullMask();
+        if (hasLine(xBits) || hasLine(oBits)) {
+            data[(int) own] = (byte) Tablebase.entry(Tablebase.INVALID, 0);
+            return;
+        }
+
+        // The representative is the class member with the smallest index
+        long[] indices = new long[Symmetry.COUNT];
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            indices[s] = tablebase.index(transform(empty, s), transform(xBits, s));
+            if (indices[s] < own) {
+                return;
+            }
+        }
+
+        byte entry = (byte) evaluate(empties, empty, xBits, oBits);
+        for (long index : indices) {
+            data[(int) index] = entry;
+        }
+    }
+
+    private int evaluate(int empties, long empty, long xBits, long oBits) {
+        if (empties == 0) {
+            return Tablebase.entry(Tablebase.DRAW, 0);
+        }
+
+        boolean xToMove = ((cellCount - empties) & 1) == 0;
+        long mover = xToMove ? xBits : oBits;
+        int win = xToMove ? Tablebase.X_WINS : Tablebase.O_WINS;
+
+        int bestScore = Integer.MIN_VALUE;
+        int bestEntry = 0;
+        for (long rest = empty; rest != 0; rest &= rest - 1) {
+            int cell = Long.numberOfTrailingZeros(rest);
+            long bit = 1L << cell;
+            int result;
+            int distance;
+            if (completesLine(mover | bit, cell)) {
+                result = win;
+                distance = 1;
+            } else {
+                long child = tablebase.index(empty & ~bit, xToMove ? xBits | bit : xBits);
+                int childEntry = data[(int) child] & 0xFF;
+                result = Tablebase.result(childEntry);
+                distance = Tablebase.distance(childEntry) + 1;
+            }
+
+            // Win as fast as possible, lose as slowly as possible
+            int score = result == Tablebase.DRAW ? 0
+                      : result == win ? WIN_SCORE - distance
+                      : distance - WIN_SCORE;
+            if (score > bestScore) {
+                bestScore = score;
+                bestEntry = Tablebase.entry(result, distance);
+            }
+        }
+        return bestEntry;
+    }
+
+    private boolean completesLine(long stones, int cell) {
+        for (long mask : linesThrough[cell]) {
+            if ((stones & mask) == mask) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasLine(long stones) {
+        for (long mask : lines) {
+            if ((stones & mask) == mask) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long transform(long bits, int symmetry) {
+        int[] map = symmetryMaps[symmetry];
+        long result = 0;
+        for (long rest = bits; rest != 0; rest &= rest - 1) {
+            result |= 1L << map[Long.numberOfTrailingZeros(rest)];
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.out.println("Usage: java tictactoe.TablebaseGenerator m k maxEmpties file");
+            return;
+        }
+        int m = Integer.parseInt(args[0]);
+        int k = Integer.parseInt(args[1]);
+        int maxEmpties = Integer.parseInt(args[2]);
+        Path file = Path.of(args[3]);
+
+        long start = System.currentTimeMillis();
+        Tablebase tablebase = generate(m, k, maxEmpties);
+        write(tablebase, file);
+        System.out.println("Wrote " + tablebase.getEntryCount() + " positions to " + file +
+                " in " + (System.currentTimeMillis() - start) + "ms");
+    }
+}
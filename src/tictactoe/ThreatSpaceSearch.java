@@ -0,0 +1,236 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Victory-by-continuous-fours (VCF) solver.
+ *
+ * A four is a window holding k - 1 of a player's stones and one empty
+ * cell: unless the opponent fills that cell, the player wins there next
+ * move. The solver looks for a sequence of attacker moves that each make
+ * a four, with the defender forced to block every time, ending in a move
+ * that makes two fours at once (or completes a line). Only four-making
+ * moves and forced blocks are searched, so wins many plies deep are found
+ * with a few hundred nodes where a full-width search would need millions.
+ *
+ * Threats are read off the SearchBoard's window counts (see LineGeometry),
+ * which play and undo keep current.
+ *
+ * The search is sound but not complete: a win it reports is a real win,
+ * but wins that need quieter moves (such as open threes) are not found.
+ * Instances keep per-search buffers and are not thread-safe.
+ */
+public final class ThreatSpaceSearch {
+    private static final int DEFAULT_MAX_DEPTH = 30;     // attacker moves
+    private static final int DEFAULT_NODE_LIMIT = 200_000;
+
+    private final int maxDepth;
+    private final int nodeLimit;
+    private final Map<Long, Integer> failed = new HashMap<>(); // key -> deepest failed remaining depth
+    private int nodes;
+    private int[] sequence = new int[0]; // winning line of the last successful search
+    private int[] line;                  // moves of the current path
+    private int[][] candidates;          // per-depth candidate buffers
+    private int[] weight;                // four-making windows through each cell
+    private int[] stamp;                 // generation at which weight was last reset
+    private int generation;
+
+    public ThreatSpaceSearch() {
+        this(DEFAULT_MAX_DEPTH, DEFAULT_NODE_LIMIT);
+    }
+
+    /**
+     * maxDepth limits the attacker moves in a sequence, nodeLimit the
+     * attacker positions examined per search
+     */
+    public ThreatSpaceSearch(int maxDepth, int nodeLimit) {
+        if (maxDepth < 1 || nodeLimit < 1) {
+            throw new IllegalArgumentException("Depth and node limits must be at least 1");
+        }
+        this.maxDepth = maxDepth;
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Looks for a VCF win for the player to move. Returns the first move of
+     * the winning sequence as a cell index, or -1 if none was found within
+     * the limits. The board is unchanged afterwards.
+     */
+    public int findWin(SearchBoard board) {
+        nodes = 0;
+        sequence = new int[0];
+        failed.clear();
+        if (board.getWinner() != null || board.isFull() || board.getWinCondition() < 2) {
+            return -1;
+        }
+        int cellCount = board.getCellCount();
+        if (weight == null || weight.length != cellCount) {
+            weight = new int[cellCount];
+            stamp = new int[cellCount];
+            line = new int[2 * maxDepth + 1];
+            candidates = new int[maxDepth][cellCount];
+        }
+
+        char attacker = board.getCurrentPlayer();
+        int length = search(board, attacker, 0);
+        if (length < 0) {
+            return -1;
+        }
+        sequence = Arrays.copyOf(line, length);
+        return sequence[0];
+    }
+
+    /**
+     * Searches with the attacker to move. Returns the length of the winning
+     * line written to line[2 * depth ..], counted from the root, or -1.
+     */
+    private int search(SearchBoard board, char attacker, int depth) {
+        if (++nodes > nodeLimit) {
+            return -1;
+        }
+        char defender = attacker == 'X' ? 'O' : 'X';
+        int ply = 2 * depth;
+
+        // An open four wins at once
+        int win = firstFourCell(board, attacker, -1);
+        if (win >= 0) {
+            line[ply] = win;
+            return ply + 1;
+        }
+        if (depth >= maxDepth) {
+            return -1;
+        }
+
+        // A defender four must be blocked, and the block must make a four
+        int block = firstFourCell(board, defender, -1);
+        if (block >= 0 && firstFourCell(board, defender, block) >= 0) {
+            return -1; // Two fours cannot both be blocked
+        }
+
+        int remaining = maxDepth - depth;
+        long key = board.getZobristKey();
+        Integer failedDepth = failed.get(key);
+        if (failedDepth != null && failedDepth >= remaining) {
+            return -1;
+        }
+
+        int[] moves = candidates[depth];
+        int count = block >= 0 ? single(moves, block) : fourMakingCells(board, attacker, moves);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            board.play(move);
+            int reply = firstFourCell(board, attacker, -1);
+            int result = -1;
+            if (reply >= 0) {
+                if (firstFourCell(board, attacker, reply) >= 0) {
+                    // Double four: whichever is blocked, the other wins
+                    line[ply] = move;
+                    line[ply + 1] = reply;
+                    line[ply + 2] = firstFourCell(board, attacker, reply);
+                    result = ply + 3;
+                } else {
+                    board.play(reply); // Forced block
+                    line[ply] = move;
+                    line[ply + 1] = reply;
+                    result = search(board, attacker, depth + 1);
+                    board.undo();
+                }
+            }
+            board.undo();
+            if (result >= 0) {
+                return result;
+            }
+            if (nodes > nodeLimit) {
+                return -1;
+            }
+        }
+
+        failed.merge(key, remaining, Math::max);
+        return -1;
+    }
+
+    private static int single(int[] moves, int move) {
+        moves[0] = move;
+        return 1;
+    }
+
+    /**
+     * Empty cell completing one of the player's fours, other than skip, or
+     * -1 if there is none
+     */
+    private static int firstFourCell(SearchBoard board, char player, int skip) {
+        int k = board.getWinCondition();
+        int[] own = board.getWindowCounts(player);
+        int[] other = board.getWindowCounts(player == 'X' ? 'O' : 'X');
+        int[] cells = board.getGeometry().getWindowCells();
+        for (int w = 0; w < own.length; w++) {
+            if (own[w] == k - 1 && other[w] == 0) {
+                for (int i = w * k; i < w * k + k; i++) {
+                    if (board.isEmpty(cells[i]) && cells[i] != skip) {
+                        return cells[i];
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the empty cells where the player would make a four into
+     * moves, those in the most windows first, and returns how many
+     */
+    private int fourMakingCells(SearchBoard board, char player, int[] moves) {
+        int k = board.getWinCondition();
+        int[] own = board.getWindowCounts(player);
+        int[] other = board.getWindowCounts(player == 'X' ? 'O' : 'X');
+        int[] cells = board.getGeometry().getWindowCells();
+        generation++;
+        int count = 0;
+        for (int w = 0; w < own.length; w++) {
+            if (own[w] == k - 2 && other[w] == 0) {
+                for (int i = w * k; i < w * k + k; i++) {
+                    int cell = cells[i];
+                    if (!board.isEmpty(cell)) {
+                        continue;
+                    }
+                    if (stamp[cell] != generation) {
+                        stamp[cell] = generation;
+                        weight[cell] = 0;
+                        moves[count++] = cell;
+                    }
+                    weight[cell]++;
+                }
+            }
+        }
+
+        // Insertion sort by weight, descending; ties keep ascending cells
+        Arrays.sort(moves, 0, count);
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int j = i - 1;
+            while (j >= 0 && weight[moves[j]] < weight[move]) {
+                moves[j + 1] = moves[j];
+                j--;
+            }
+            moves[j + 1] = move;
+        }
+        return count;
+    }
+
+    /**
+     * Winning line found by the last successful findWin: attacker and
+     * defender moves alternating, ending with the attacker's winning move
+     */
+    public int[] getSequence() {
+        return sequence.clone();
+    }
+
+    /**
+     * Attacker positions examined by the last search
+     */
+    public int getNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,388 @@
+package tictactoe;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless match between two agents, played in parallel.
+ *
+ * Games start from random openings of a few plies, generated from a seed
+ * so a run can be repeated. Every opening is played twice with colours
+ * swapped, which cancels most of the first-move advantage. Games run on a
+ * work-stealing pool; each worker thread builds its pair of agents once
+ * and clears them between games. Results are appended to the results
+ * file as they finish (one tab-separated line per game) and summarised at
+ * the end as a score, an Elo difference with a 95% error margin and, if
+ * configured, a sequential probability ratio test.
+ *
+ * With an SPRT configured the match stops as soon as the test accepts
+ * either hypothesis.
+ *
+ * Usage: java tictactoe.Tournament m k games specA specB [options]
+ *   --threads n        games played at once (default: all processors)
+ *   --openings plies   random plies before the agents take over (default 2)
+ *   --seed n           opening seed
+ *   --results file     results file (default: none)
+ *   --sprt elo0 elo1   test H0: A is elo0 stronger against H1: elo1
+ * See AgentSpec for the agent spec format.
+ */
+public final class Tournament {
+    private static final double SPRT_ALPHA = 0.05;
+    private static final double SPRT_BETA = 0.05;
+
+    private final int m;
+    private final int k;
+    private final AgentSpec first;
+    private final AgentSpec second;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int openingPlies = 2;
+    private long seed = 1;
+    private Path resultsFile;
+    private double elo0 = Double.NaN;
+    private double elo1 = Double.NaN;
+
+    /**
+     * Outcome of a match from the first agent's point of view
+     */
+    public static final class Summary {
+        final int games;
+        final int wins;
+        final int draws;
+        final int losses;
+        final double llr; // SPRT log-likelihood ratio, NaN without a test
+
+        Summary(int wins, int draws, int losses, double llr) {
+            this.games = wins + draws + losses;
+            this.wins = wins;
+            this.draws = draws;
+            this.losses = losses;
+            this.llr = llr;
+        }
+
+        public int getGames() {
+            return games;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public int getDraws() {
+            return draws;
+        }
+
+        public int getLosses() {
+            return losses;
+        }
+
+        /**
+         * Points per game: 1 for a win, 0.5 for a draw
+         */
+        public double getScore() {
+            return games == 0 ? 0.5 : (wins + 0.5 * draws) / games;
+        }
+
+        /**
+         * Elo difference implied by the score, positive if the first
+         * agent is stronger
+         */
+        public double getElo() {
+            return elo(getScore());
+        }
+
+        /**
+         * Half-width of the 95% confidence interval of getElo()
+         */
+        public double getEloError() {
+            if (games < 2) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double margin = 1.96 * Math.sqrt(variance(this) / games);
+            return (elo(getScore() + margin) - elo(getScore() - margin)) / 2;
+        }
+
+        public double getLlr() {
+            return llr;
+        }
+
+        /**
+         * SPRT verdict: "H1" or "H0" once a bound is crossed, otherwise
+         * "continue"; null without a test
+         */
+        public String getSprtResult() {
+            if (Double.isNaN(llr)) {
+                return null;
+            }
+            if (llr >= Math.log((1 - SPRT_BETA) / SPRT_ALPHA)) {
+                return "H1";
+            }
+            if (llr <= Math.log(SPRT_BETA / (1 - SPRT_ALPHA))) {
+                return "H0";
+            }
+            return "continue";
+        }
+
+        @Override
+        public String toString() {
+            String text = String.format("+%d =%d -%d, score %.1f%%, Elo %+.1f ± %.1f",
+                    wins, draws, losses, 100 * getScore(), getElo(), getEloError());
+            return Double.isNaN(llr) ? text : text + String.format(", LLR %.2f (%s)", llr, getSprtResult());
+        }
+    }
+
+    public Tournament(int m, int k, AgentSpec first, AgentSpec second) {
+        if (m < 1 || k < 1) {
+            throw new IllegalArgumentException("Board size and win condition must be positive");
+        }
+        this.m = m;
+        this.k = k;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Plays the given number of games (rounded up to an even number, one
+     * pair per opening) and returns the result from the first agent's
+     * point of view
+     */
+    public Summary play(int games) throws IOException {
+        int pairs = (games + 1) / 2;
+        ExecutorService pool = Executors.newWorkStealingPool(threads);
+        int[] counts = new int[3]; // wins, draws, losses of the first agent
+        boolean[] stopped = new boolean[1];
+        ThreadLocal<AgentSpec.Player[]> players = ThreadLocal.withInitial(
+                () -> new AgentSpec.Player[] {first.newPlayer(), second.newPlayer()});
+
+        try (BufferedWriter out = resultsFile == null ? null : Files.newBufferedWriter(resultsFile)) {
+            if (out != null) {
+                out.write("# " + m + "x" + m + " k=" + k + " A=" + first + " B=" + second + " seed=" + seed);
+                out.newLine();
+                out.write("#game\tX\tresult\tplies\tmoves");
+                out.newLine();
+            }
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int game = 0; game < 2 * pairs; game++) {
+                int index = game;
+                futures.add(pool.submit(() -> {
+                    synchronized (counts) {
+                        if (stopped[0]) {
+                            return;
+                        }
+                    }
+                    boolean firstIsX = index % 2 == 0;
+                    StringBuilder moves = new StringBuilder();
+                    Board end = playOut(opening(index / 2), players.get(), firstIsX, moves);
+                    int plies = end.getMoveCount();
+                    Character winnerMark = GameEngine.winner(end);
+                    char winner = winnerMark == null ? ' ' : winnerMark;
+                    int outcome = winner == ' ' ? 1 : (winner == 'X') == firstIsX ? 0 : 2;
+
+                    synchronized (counts) {
+                        if (stopped[0]) {
+                            return;
+                        }
+                        counts[outcome]++;
+                        if (out != null) {
+                            try {
+                                out.write(index + "\t" + (firstIsX ? "A" : "B") + "\t" +
+                                        (winner == ' ' ? "1/2" : winner == 'X' ? "1-0" : "0-1") + "\t" +
+                                        plies + "\t" + moves.toString().trim());
+                                out.newLine();
+                                out.flush();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+                        String verdict = summary(counts).getSprtResult();
+                        if (verdict != null && !verdict.equals("continue")) {
+                            stopped[0] = true;
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return summary(counts);
+    }
+
+    /**
+     * Plays the game to the end between the first and second agent's
+     * players and returns the final position. Moves after the opening are
+     * appended to moves as cell indices.
+     */
+    private Board playOut(Board board, AgentSpec.Player[] players, boolean firstIsX, StringBuilder moves) {
+        AgentSpec.Player x = players[firstIsX ? 0 : 1];
+        AgentSpec.Player o = players[firstIsX ? 1 : 0];
+        x.newGame();
+        o.newGame();
+        while (!GameEngine.terminal(board)) {
+            Move move = (board.getCurrentPlayer() == 'X' ? x : o).apply(board);
+            moves.append(' ').append(move.getRow() * m + move.getCol());
+            board = board.makeMove(move);
+        }
+        return board;
+    }
+
+    /**
+     * Position after the random opening of the given pair: openingPlies
+     * uniformly random moves, never ending the game
+     */
+    Board opening(int pair) {
+        Random random = new Random(seed * 0x9E3779B97F4A7C15L + pair);
+        int[] cells = new int[m * m];
+        while (true) {
+            Board board = GameEngine.initialState(m, k);
+            for (int ply = 0; ply < openingPlies && !GameEngine.terminal(board); ply++) {
+                int count = GameEngine.actions(board, cells);
+                board = board.makeMove(cells[random.nextInt(count)]);
+            }
+            if (!GameEngine.terminal(board)) {
+                return board;
+            }
+        }
+    }
+
+    private Summary summary(int[] counts) {
+        Summary summary = new Summary(counts[0], counts[1], counts[2], Double.NaN);
+        if (Double.isNaN(elo0) || summary.games < 2) {
+            return summary;
+        }
+        return new Summary(counts[0], counts[1], counts[2], llr(summary, elo0, elo1));
+    }
+
+    /**
+     * Log-likelihood ratio of H1 (elo1) against H0 (elo0) under the
+     * normal approximation of the per-game score
+     */
+    static double llr(Summary summary, double elo0, double elo1) {
+        double variance = variance(summary);
+        if (variance == 0) {
+            return 0;
+        }
+        double s0 = expectedScore(elo0);
+        double s1 = expectedScore(elo1);
+        return summary.games * (s1 - s0) * (2 * summary.getScore() - s0 - s1) / (2 * variance);
+    }
+
+    /**
+     * Per-game variance of the score
+     */
+    private static double variance(Summary summary) {
+        double score = summary.getScore();
+        double n = summary.games;
+        return (summary.wins * Math.pow(1 - score, 2) + summary.draws * Math.pow(0.5 - score, 2)
+                + summary.losses * Math.pow(score, 2)) / n;
+    }
+
+    static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    static double elo(double score) {
+        double clamped = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a game", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Game failed", e.getCause());
+        }
+    }
+
+    /**
+     * Games played at once; each needs its own pair of agents
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Random plies played before the agents take over
+     */
+    public void setOpeningPlies(int openingPlies) {
+        if (openingPlies < 0) {
+            throw new IllegalArgumentException("Opening plies must not be negative");
+        }
+        this.openingPlies = openingPlies;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * File to stream game results to; null (the default) writes none
+     */
+    public void setResultsFile(Path resultsFile) {
+        this.resultsFile = resultsFile;
+    }
+
+    /**
+     * Runs a sequential probability ratio test of H0: the first agent is
+     * elo0 stronger, against H1: it is elo1 stronger (alpha = beta = 0.05),
+     * stopping the match once either is accepted
+     */
+    public void setSprt(double elo0, double elo1) {
+        if (!(elo1 > elo0)) {
+            throw new IllegalArgumentException("elo1 must be greater than elo0");
+        }
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.out.println("Usage: java tictactoe.Tournament m k games specA specB [--threads n] "
+                    + "[--openings plies] [--seed n] [--results file] [--sprt elo0 elo1]");
+            return;
+        }
+        int m = Integer.parseInt(args[0]);
+        int k = Integer.parseInt(args[1]);
+        int games = Integer.parseInt(args[2]);
+        AgentSpec a = AgentSpec.parse(args[3]);
+        AgentSpec b = AgentSpec.parse(args[4]);
+        Tournament tournament = new Tournament(m, k, a, b);
+        for (int i = 5; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads": tournament.setThreads(Integer.parseInt(args[++i])); break;
+                case "--openings": tournament.setOpeningPlies(Integer.parseInt(args[++i])); break;
+                case "--seed": tournament.setSeed(Long.parseLong(args[++i])); break;
+                case "--results": tournament.setResultsFile(Path.of(args[++i])); break;
+                case "--sprt":
+                    tournament.setSprt(Double.parseDouble(args[i + 1]), Double.parseDouble(args[i + 2]));
+                    i += 2;
+                    break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        System.out.println("A: " + a + "\nB: " + b + "\n" + m + "x" + m + ", k=" + k);
+        long start = System.currentTimeMillis();
+        Summary summary = tournament.play(games);
+        System.out.println(summary.getGames() + " games in " + (System.currentTimeMillis() - start) + "ms");
+        System.out.println("A vs B: " + summary);
+    }
+}
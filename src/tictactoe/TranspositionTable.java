@@ -0,0 +1,80 @@
+package tictactoe;
+
+/**
+ * Transposition table keyed by Zobrist keys.
+ * Each entry records the search value of a position together with the
+ * remaining depth it was searched to, the bound type and the best move.
+ *
+ * Entries are packed into a single data word; probe returns it, or 0 on a
+ * miss, and the static accessors unpack it without allocating.
+ * Implementations may be shared by several search threads without locking.
+ *
+ * HeapTranspositionTable keeps its entries in Java arrays;
+ * OffHeapTranspositionTable keeps them in direct memory outside the heap.
+ */
+public interface TranspositionTable {
+
+    /**
+     * How a stored value relates to the true value of the position
+     */
+    enum Bound {
+        EXACT, // value is exact
+        LOWER, // true value >= value (search failed high)
+        UPPER  // true value <= value (search failed low)
+    }
+
+    /**
+     * Which entry gives way when two positions map to the same slot
+     */
+    enum ReplacementPolicy {
+        ALWAYS_REPLACE,  // newest entry wins
+        DEPTH_PREFERRED, // keep the entry searched to the greater depth
+        TWO_TIER         // two slots per bucket: one depth-preferred, one always replaced
+    }
+
+    int DEFAULT_ENTRIES = 1 << 18;
+
+    /**
+     * Returns the packed data word stored for the key, or 0 if absent
+     */
+    long probe(long key);
+
+    /**
+     * Stores a search result. Values must be whole numbers, which every
+     * utility and heuristic score is; others are silently not stored.
+     * Depth is the remaining depth below the position; move is a cell
+     * index or -1.
+     */
+    void store(long key, double value, int depth, Bound bound, int move);
+
+    /**
+     * Removes all entries
+     */
+    void clear();
+
+    /**
+     * Number of entries the table can hold
+     */
+    int getCapacity();
+
+    ReplacementPolicy getReplacementPolicy();
+
+    static double value(long entry) {
+        return PackedTranspositionTable.value(entry);
+    }
+
+    static int depth(long entry) {
+        return PackedTranspositionTable.depth(entry);
+    }
+
+    static Bound bound(long entry) {
+        return PackedTranspositionTable.bound(entry);
+    }
+
+    /**
+     * Best move as a cell index, or -1 if none was recorded
+     */
+    static int move(long entry) {
+        return PackedTranspositionTable.move(entry);
+    }
+}
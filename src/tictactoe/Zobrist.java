@@ -0,0 +1,50 @@
+package tictactoe;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zobrist hashing keys.
+ * Every (player, cell) pair on an m×m board gets a fixed random 64-bit key,
+ * and a position's key is the XOR of the keys of its stones, salted with
+ * (m, k). Placing or removing a stone updates the key with a single XOR.
+ *
+ * Keys come from a fixed seed, so they are identical in every run.
+ */
+final class Zobrist {
+    private static final ConcurrentHashMap<Integer, long[]> KEYS = new ConcurrentHashMap<>();
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the stone keys for an m×m board: X keys at [cell],
+     * O keys at [m * m + cell]
+     */
+    static long[] keys(int m) {
+        return KEYS.computeIfAbsent(m, Zobrist::generate);
+    }
+
+    /**
+     * Key of the empty m×m board with win condition k
+     */
+    static long initialKey(int m, int k) {
+        return new SplittableRandom(0x5DEECE66DL ^ ((long) m << 32 | k)).nextLong();
+    }
+
+    /**
+     * Key of a stone of the given player ('X' or 'O') on the given cell
+     */
+    static long stoneKey(int m, char player, int cell) {
+        return keys(m)[player == 'X' ? cell : m * m + cell];
+    }
+
+    private static long[] generate(int m) {
+        SplittableRandom random = new SplittableRandom(0x2545F4914F6CDD1DL + m);
+        long[] keys = new long[2 * m * m];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+}
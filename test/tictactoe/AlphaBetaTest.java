@@ -1,5 +1,14 @@
 package tictactoe;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -141,4 +150,204 @@ public class AlphaBetaTest {
 
         assertEquals("X should win at (0,2)", new Move(0, 2), move);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIterativeDeepening() {
+        // Deepening to the end of a 3x3 game must agree with the full search
+        Board board = GameEngine.initialState(3, 3);
+        board = board.makeMove(new Move(0, 0)); // X
+        board = board.makeMove(new Move(1, 1)); // O
+        board = board.makeMove(new Move(0, 1)); // X (two in a row!)
+
+        AlphaBetaAgent agent = new AlphaBetaAgent();
+        Move move = agent.alphaBeta(board, 10_000);
+
+        assertEquals("O should block at (0,2)", new Move(0, 2), move);
+        assertEquals("Should deepen to the end of the game", 6, agent.getCompletedDepth());
+    }
+
+    @Test
+    public void testTimeBudget() {
+        Board board = GameEngine.initialState(7, 4);
+
+        AlphaBetaAgent agent = new AlphaBetaAgent();
+        long start = System.currentTimeMillis();
+        Move move = agent.alphaBeta(board, 300);
+        long time = System.currentTimeMillis() - start;
+
+        System.out.println("7x7 board, 300ms budget: depth " + agent.getCompletedDepth() +
+                ", " + time + "ms, " + agent.getNodesExplored() + " nodes");
+
+        assertNotNull("Should return a move", move);
+        assertTrue("Should complete at least one iteration", agent.getCompletedDepth() >= 1);
+        assertTrue("Should stop close to the budget", time < 2000);
+    }
+
+    @Test
+    public void testPrincipalVariationSearch() {
+        Board board = GameEngine.initialState(4, 3)
+                .makeMove(new Move(1, 1))
+                .makeMove(new Move(0, 0));
+
+        AlphaBetaAgent plain = new AlphaBetaAgent(5, true);
+        AlphaBetaAgent pvs = new AlphaBetaAgent(5, true, true);
+        plain.alphaBeta(board);
+        pvs.alphaBeta(board);
+
+        System.out.println("4x4 board (k=3), depth 5:");
+        System.out.println("  Alpha-Beta nodes: " + plain.getNodesExplored() + ", value " + plain.getLastValue());
+        System.out.println("  PVS nodes: " + pvs.getNodesExplored() + ", value " + pvs.getLastValue());
+
+        assertEquals("PVS should find the same value", plain.getLastValue(), pvs.getLastValue(), 0.0);
+
+        // With aspiration windows on top, the anytime search still plays correctly
+        Board threat = GameEngine.initialState(3, 3)
+                .makeMove(new Move(0, 0))
+                .makeMove(new Move(1, 1))
+                .makeMove(new Move(0, 1));
+        Move block = new AlphaBetaAgent(Integer.MAX_VALUE, true, true).alphaBeta(threat, 1000);
+        assertEquals("PVS should block the threat", new Move(0, 2), block);
+
+        System.out.println("  ✓ Same value as plain Alpha-Beta");
+    }
+
+    @Test
+    public void testDynamicOrderingPreservesValue() {
+        Board board = GameEngine.initialState(5, 4).makeMove(new Move(1, 1));
+
+        AlphaBetaAgent ordered = new AlphaBetaAgent(4, true);
+        AlphaBetaAgent unordered = new AlphaBetaAgent(4, false);
+        ordered.alphaBeta(board);
+        unordered.alphaBeta(board);
+
+        System.out.println("5x5 board (k=4), depth 4:");
+        System.out.println("  Ordered nodes: " + ordered.getNodesExplored());
+        System.out.println("  Unordered nodes: " + unordered.getNodesExplored());
+
+        assertEquals("Ordering should not change the value",
+                unordered.getLastValue(), ordered.getLastValue(), 0.0);
+        assertTrue("Hash, killer and history ordering should prune more",
+                ordered.getNodesExplored() < unordered.getNodesExplored());
+
+        System.out.println("  ✓ Same value with fewer nodes");
+    }
+
+    @Test
+    public void testParallelSearch() {
+        Board board = GameEngine.initialState(5, 4)
+                .makeMove(new Move(2, 2))
+                .makeMove(new Move(1, 3));
+
+        AlphaBetaAgent sequential = new AlphaBetaAgent(4, true);
+        Move expected = sequential.alphaBeta(board);
+
+        AlphaBetaAgent deterministic = new AlphaBetaAgent(4, true);
+        deterministic.setThreadCount(3);
+        deterministic.setDeterministic(true);
+        Move split = deterministic.alphaBeta(board);
+
+        AlphaBetaAgent lazy = new AlphaBetaAgent(4, true);
+        lazy.setThreadCount(3);
+        Move smp = lazy.alphaBeta(board);
+
+        System.out.println("5x5 board (k=4), depth 4, 3 threads:");
+        System.out.println("  Sequential: " + expected + ", " + sequential.getNodesExplored() + " nodes");
+        System.out.println("  Deterministic: " + split + ", per thread " +
+                Arrays.toString(deterministic.getThreadNodes()));
+        System.out.println("  Lazy SMP: " + smp + ", per thread " +
+                Arrays.toString(lazy.getThreadNodes()));
+
+        assertEquals("Deterministic mode should match the sequential move", expected, split);
+        assertEquals(sequential.getLastValue(), deterministic.getLastValue(), 0.0);
+        assertEquals(3, deterministic.getThreadNodes().length);
+        int total = 0;
+        for (int nodes : deterministic.getThreadNodes()) {
+            assertTrue("Every thread should search", nodes > 0);
+            total += nodes;
+        }
+        assertEquals(total, deterministic.getNodesExplored());
+        assertNotNull("Lazy SMP should return a move", smp);
+        assertTrue(board.isEmpty(smp.getRow(), smp.getCol()));
+
+        System.out.println("  ✓ Parallel modes agree with the sequential search");
+    }
+
+    @Test
+    public void testSearchStats() throws Exception {
+        Board board = GameEngine.initialState(4, 3).makeMove(new Move(1, 1));
+        AlphaBetaAgent agent = new AlphaBetaAgent(5, true);
+
+        Path dump = Files.createTempFile("search", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("tictactoe.Search");
+            recording.enable("tictactoe.SearchIteration");
+            recording.start();
+            agent.alphaBeta(board, 10_000);
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.delete(dump);
+
+        SearchStats stats = agent.getStats();
+        System.out.println("4x4 board (k=3), iterative deepening to depth 5:");
+        System.out.println("  " + stats);
+
+        assertEquals(agent.getNodesExplored(), stats.getNodes());
+        assertEquals(5, stats.getDepth());
+        long iterationNodes = 0;
+        for (int depth = 1; depth <= 5; depth++) {
+            assertTrue("Every iteration should be timed", stats.getDepthNanos(depth) > 0);
+            iterationNodes += stats.getDepthNodes(depth);
+        }
+        assertEquals("Iterations should account for every node", stats.getNodes(), iterationNodes);
+        assertTrue(stats.getLeafEvaluations() > 0 && stats.getLeafEvaluations() < stats.getNodes());
+        assertTrue(stats.getTotalCutoffs() > 0);
+        assertTrue("Ordering should make the first move cut most often", stats.getFirstMoveCutoffRate() > 0.5);
+        assertTrue(stats.getTableHits() > 0 && stats.getTableHits() <= stats.getTableProbes());
+        assertTrue(stats.getEffectiveBranchingFactor() > 1);
+
+        long searches = events.stream().filter(e -> e.getEventType().getName().equals("tictactoe.Search")).count();
+        long iterations = events.stream()
+                .filter(e -> e.getEventType().getName().equals("tictactoe.SearchIteration")).count();
+        assertEquals("One event per search", 1, searches);
+        assertEquals("One event per completed iteration", 5, iterations);
+        RecordedEvent search = events.stream()
+                .filter(e -> e.getEventType().getName().equals("tictactoe.Search")).findFirst().get();
+        assertEquals(stats.getNodes(), search.getLong("nodes"));
+
+        System.out.println("  ✓ Statistics are consistent and flight recorder events are emitted");
+    }
+
+    @Test
+    public void testProximityMoveGeneration() {
+        Board board = GameEngine.initialState(15, 5)
+                .makeMove(new Move(7, 7))
+                .makeMove(new Move(6, 8))
+                .makeMove(new Move(8, 8));
+
+        AlphaBetaAgent all = new AlphaBetaAgent(3, true);
+        Move allMove = all.alphaBeta(board);
+
+        AlphaBetaAgent near = new AlphaBetaAgent(3, true);
+        near.setMoveGenerator(new ProximityMoveGenerator(2));
+        Move nearMove = near.alphaBeta(board);
+
+        System.out.println("15x15 board (k=5), depth 3:");
+        System.out.println("  All empty cells: " + allMove + ", " + all.getNodesExplored() + " nodes");
+        System.out.println("  Radius 2: " + nearMove + ", " + near.getNodesExplored() + " nodes");
+
+        assertTrue("Move should be legal", board.isEmpty(nearMove.getRow(), nearMove.getCol()));
+        assertTrue("Move should be near the stones",
+                Math.abs(nearMove.getRow() - 7) <= 3 && Math.abs(nearMove.getCol() - 7) <= 3);
+        assertTrue("Proximity should search far fewer nodes",
+                near.getNodesExplored() * 5 < all.getNodesExplored());
+
+        // The strategy also applies to the parallel searches
+        near.setThreadCount(2);
+        near.setDeterministic(true);
+        assertEquals(nearMove, near.alphaBeta(board));
+
+        System.out.println("  ✓ Candidate generation cuts the branching factor");
+    }
+}
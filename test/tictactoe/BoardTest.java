@@ -111,4 +111,66 @@ public class BoardTest {
 
         System.out.println("  ✓ Larger board works correctly");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLargeBoardWords() {
+        System.out.println("\nBoard Test 6 - Multi-word Board (15x15):");
+
+        Board board = new Board(15, 5);
+        board = board.makeMove(new Move(0, 0));   // X, word 0
+        board = board.makeMove(new Move(7, 7));   // O, cell 112 in word 1
+        board = board.makeMove(new Move(14, 14)); // X, last cell in word 3
+
+        System.out.println("  Cells (0,0), (7,7), (14,14): " +
+                board.getCell(0, 0) + board.getCell(7, 7) + board.getCell(14, 14));
+
+        assertEquals('X', board.getCell(0, 0));
+        assertEquals('O', board.getCell(7, 7));
+        assertEquals('X', board.getCell(14, 14));
+        assertTrue(board.isEmpty(7, 8));
+        assertEquals(3, board.getMoveCount());
+
+        Board same = new Board(15, 5)
+                .makeMove(new Move(0, 0))
+                .makeMove(new Move(7, 7))
+                .makeMove(new Move(14, 14));
+        assertEquals(board, same);
+        assertEquals(board.hashCode(), same.hashCode());
+
+        System.out.println("  ✓ Multi-word board works correctly");
+    }
+
+    @Test
+    public void testOffBoardMoves() {
+        System.out.println("\nBoard Test 7 - Off-Board Moves:");
+        Board board = new Board(3, 3);
+        for (Move move : new Move[] {new Move(0, 3), new Move(-1, 4), new Move(3, 0), new Move(2, -1)}) {
+            try {
+                board.makeMove(move);
+                fail("Should reject " + move);
+            } catch (IllegalArgumentException expected) {
+                System.out.println("  Rejected " + move + ": " + expected.getMessage());
+            }
+        }
+        try {
+            board.isEmpty(5, 5);
+            fail("isEmpty should reject (5, 5)");
+        } catch (IllegalArgumentException expected) {
+            // Off the board
+        }
+        try {
+            new Board(9, 5).getCell(0, 9);
+            fail("getCell should reject (0, 9)");
+        } catch (IllegalArgumentException expected) {
+            // Off the board, multi-word layouts too
+        }
+        try {
+            new Board(15, 5).makeMove(new Move(0, 15));
+            fail("Should reject (0, 15) on 15x15");
+        } catch (IllegalArgumentException expected) {
+            // Would alias (1, 0)
+        }
+        assertEquals(0, board.getMoveCount());
+        System.out.println("  ✓ Off-board coordinates are rejected");
+    }
+}
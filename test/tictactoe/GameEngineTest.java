@@ -3,6 +3,7 @@ package tictactoe;
 import org.junit.Test;
 import static org.junit. Assert.*;
 import java.util.List;
+import java.util.Random;
 
 public class GameEngineTest {
 
@@ -182,4 +183,78 @@ public class GameEngineTest {
 
         System.out.println("  ✓ Generalized k-in-a-row works correctly");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testOffsetWindows() {
+        System.out.println("\nGame Engine Test 8 - Windows not starting at index 0 (4x4, k=3):");
+
+        Board board = GameEngine.initialState(4, 3);
+        board = board.makeMove(new Move(0, 1)); // X
+        board = board.makeMove(new Move(1, 1)); // O
+        board = board.makeMove(new Move(0, 2)); // X
+        board = board.makeMove(new Move(2, 1)); // O
+        board = board.makeMove(new Move(3, 3)); // X
+        assertFalse(GameEngine.terminal(board));
+        board = board.makeMove(new Move(3, 1)); // O wins with column 1, rows 1-3
+
+        System.out.println("  Board state:");
+        System.out.println("    _ X X _");
+        System.out.println("    _ O _ _");
+        System.out.println("    _ O _ _");
+        System.out.println("    _ O _ X  ← 3-in-a-row starting at row 1!");
+
+        System.out.println("  Winner: " + GameEngine.winner(board));
+        System.out.println("  Last move: " + board.getLastMove());
+
+        assertTrue(GameEngine.terminal(board));
+        assertEquals(Character.valueOf('O'), GameEngine.winner(board));
+        assertEquals(Integer.valueOf(-1), GameEngine.utility(board));
+        assertEquals(new Move(3, 1), board.getLastMove());
+
+        Board rowWin = GameEngine.initialState(4, 3);
+        rowWin = rowWin.makeMove(new Move(2, 1)); // X
+        rowWin = rowWin.makeMove(new Move(0, 0)); // O
+        rowWin = rowWin.makeMove(new Move(2, 3)); // X
+        rowWin = rowWin.makeMove(new Move(0, 1)); // O
+        rowWin = rowWin.makeMove(new Move(2, 2)); // X wins with row 2, cols 1-3
+
+        assertEquals(Character.valueOf('X'), GameEngine.winner(rowWin));
+
+        System.out.println("  ✓ Row and column wins found anywhere on the line");
+    }
+
+    @Test
+    public void testPrimitiveActions() {
+        System.out.println("\nGame Engine Test 9 - Cell-Index Actions and Shared Moves:");
+        Random random = new Random(11);
+        for (int m : new int[] {3, 8, 9, 12}) {
+            Board board = GameEngine.initialState(m, Math.min(m, 4));
+            int[] cells = new int[m * m];
+            for (int ply = 0; ply < m * m / 2 && !GameEngine.terminal(board); ply++) {
+                List<Move> moves = GameEngine.actions(board);
+                int count = GameEngine.actions(board, cells);
+                assertEquals(moves.size(), count);
+                for (int i = 0; i < count; i++) {
+                    assertEquals(moves.get(i), Move.ofCell(cells[i], m));
+                }
+                int cell = cells[random.nextInt(count)];
+                Board next = board.makeMove(cell);
+                assertEquals(board.makeMove(Move.ofCell(cell, m)), next);
+                board = next;
+            }
+            System.out.println("  " + m + "x" + m + ": int[] actions match the Move list");
+        }
+
+        assertSame(Move.of(2, 1), Move.of(2, 1));
+        assertSame(Move.of(2, 1), Move.ofCell(7, 3));
+        assertEquals(new Move(40, 1), Move.of(40, 1));
+        assertSame(GameEngine.actions(GameEngine.initialState(3, 3)).get(4), Move.of(1, 1));
+        try {
+            GameEngine.initialState(3, 3).makeMove(9);
+            fail("Cell 9 is off a 3x3 board");
+        } catch (IllegalArgumentException expected) {
+            // Rejected like an occupied cell
+        }
+        System.out.println("  ✓ Moves on boards up to 32x32 are shared instances");
+    }
+}
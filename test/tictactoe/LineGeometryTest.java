@@ -0,0 +1,66 @@
+package tictactoe;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LineGeometryTest {
+
+    @Test
+    public void testWindowCounts() {
+        System.out.println("Line Geometry Test 1 - Window Counts:");
+
+        // 3x3: 3 rows, 3 columns, 2 diagonals, all scored
+        LineGeometry small = LineGeometry.of(3, 3);
+        assertEquals(8, small.getWindowCount());
+        assertEquals(8, small.getScoredCount());
+
+        // 4x4, k=3: 2 windows along each row and column, 4 per diagonal direction;
+        // only rows from column 0 and columns from row 0 are scored
+        LineGeometry large = LineGeometry.of(4, 3);
+        System.out.println("  4x4 k=3: " + large.getWindowCount() + " windows, " +
+                large.getScoredCount() + " scored");
+        assertEquals(24, large.getWindowCount());
+        assertEquals(16, large.getScoredCount());
+
+        // Nothing fits when k > m
+        assertEquals(0, LineGeometry.of(3, 4).getWindowCount());
+
+        assertSame("Geometry should be cached", large, LineGeometry.of(4, 3));
+
+        System.out.println("  ✓ Window counts correct");
+    }
+
+    @Test
+    public void testWindowsThroughCell() {
+        System.out.println("\nLine Geometry Test 2 - Windows Through Cell:");
+
+        int m = 5;
+        int k = 4;
+        LineGeometry geometry = LineGeometry.of(m, k);
+        int[] cells = geometry.getWindowCells();
+
+        for (int cell = 0; cell < m * m; cell++) {
+            int through = 0;
+            for (int w = 0; w < geometry.getWindowCount(); w++) {
+                for (int i = 0; i < k; i++) {
+                    if (cells[w * k + i] == cell) {
+                        through++;
+                    }
+                }
+            }
+            assertEquals(through, geometry.windowsThrough(cell).length);
+            for (int w : geometry.windowsThrough(cell)) {
+                boolean contains = false;
+                for (int i = 0; i < k; i++) {
+                    contains |= cells[w * k + i] == cell;
+                }
+                assertTrue("Listed window should contain the cell", contains);
+            }
+        }
+
+        // Center cell of 5x5: 2 row, 2 column, 2 diagonal and 2 anti-diagonal windows
+        assertEquals(8, geometry.windowsThrough(12).length);
+
+        System.out.println("  ✓ Every cell lists exactly the windows containing it");
+    }
+}
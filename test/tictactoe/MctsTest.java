@@ -0,0 +1,78 @@
+package tictactoe;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MctsTest {
+
+    @Test
+    public void testMctsTakeWin() {
+        Board board = GameEngine.initialState(3, 3);
+        board = board.makeMove(new Move(0, 0)); // X
+        board = board.makeMove(new Move(1, 0)); // O
+        board = board.makeMove(new Move(0, 1)); // X
+        board = board.makeMove(new Move(1, 1)); // O threatens (1, 2)
+
+        System.out.println("3x3 board - MCTS Take Win Test:");
+        System.out.println("  Board state:");
+        System.out.println("    X X _");
+        System.out.println("    O O _");
+        System.out.println("    _ _ _");
+
+        MctsAgent agent = new MctsAgent(5000);
+        Move move = agent.mcts(board);
+
+        System.out.println("  MCTS chose: " + move + " after " + agent.getPlayouts() + " playouts");
+
+        assertEquals("X should win at (0,2)", new Move(0, 2), move);
+        assertEquals(5000, agent.getPlayouts());
+        System.out.println("  ✓ Took the winning move");
+    }
+
+    @Test
+    public void testMctsBlockWin() {
+        Board board = GameEngine.initialState(3, 3);
+        board = board.makeMove(new Move(0, 0)); // X
+        board = board.makeMove(new Move(1, 1)); // O
+        board = board.makeMove(new Move(0, 1)); // X threatens (0, 2)
+
+        System.out.println("3x3 board - MCTS Block Win Test:");
+
+        MctsAgent agent = new MctsAgent(5000);
+        agent.setThreadCount(2);
+        Move move = agent.mcts(board);
+
+        System.out.println("  MCTS chose: " + move + " after " + agent.getPlayouts() + " playouts");
+
+        assertEquals("O should block at (0,2)", new Move(0, 2), move);
+        assertEquals("Threads should share the budget", 5000, agent.getPlayouts());
+        System.out.println("  ✓ Blocked the winning move");
+    }
+
+    @Test
+    public void testMctsTimeBudget() {
+        Board board = GameEngine.initialState(7, 4)
+                .makeMove(new Move(3, 3))
+                .makeMove(new Move(2, 3));
+
+        MctsAgent mcts = new MctsAgent();
+        mcts.setThreadCount(2);
+        Move move = mcts.mcts(board, 300);
+
+        AlphaBetaAgent alphaBeta = new AlphaBetaAgent(8, true);
+        alphaBeta.alphaBeta(board, 300);
+
+        System.out.println("7x7 board (k=4), 300ms budget:");
+        System.out.println(String.format("  MCTS: %s, %d playouts, %.0f playouts/s, %.0fms",
+                move, mcts.getPlayouts(), mcts.getPlayoutsPerSecond(), mcts.getElapsedNanos() / 1e6));
+        System.out.println("  Alpha-Beta: depth " + alphaBeta.getCompletedDepth() + ", " +
+                alphaBeta.getStats());
+
+        assertNotNull(move);
+        assertTrue("Move should be legal", board.isEmpty(move.getRow(), move.getCol()));
+        assertTrue("Should cover every root move", mcts.getPlayouts() >= 47);
+        assertTrue(mcts.getPlayoutsPerSecond() > 0);
+        assertTrue("Should stop near the deadline", mcts.getElapsedNanos() < 2_000_000_000L);
+        System.out.println("  ✓ Searched within the time budget");
+    }
+}
@@ -121,4 +121,28 @@ public class MinimaxTest {
             fail("Minimax should not lose when playing optimally");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMemoizedMinimax() {
+        System.out.println("3x3 board - Memoized Minimax Test:");
+
+        MinimaxAgent plain = new MinimaxAgent();
+        MinimaxAgent memoized = new MinimaxAgent(true);
+
+        Board board = GameEngine.initialState(3, 3);
+        while (!GameEngine.terminal(board)) {
+            Move expected = plain.minimax(board);
+            Move move = memoized.minimax(board);
+
+            System.out.println("  Plain: " + expected + " (" + plain.getNodesExplored() + " nodes), " +
+                    "memoized: " + move + " (" + memoized.getNodesExplored() + " nodes)");
+
+            assertEquals("Memoized minimax should choose the same move", expected, move);
+            assertTrue(memoized.getNodesExplored() <= plain.getNodesExplored());
+            board = GameEngine.result(board, move);
+        }
+
+        assertNull("Perfect play from both sides is a draw", GameEngine.winner(board));
+        System.out.println("  ✓ Same moves with far fewer nodes");
+    }
+}
@@ -0,0 +1,127 @@
+package tictactoe;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MoveServerTest {
+
+    @Test
+    public void testBoardEncoding() {
+        System.out.println("Move Server Test 1 - Board Encoding:");
+        Board board = MoveServer.parseBoard("XX./OO./...", null);
+        assertEquals(3, board.getSize());
+        assertEquals(3, board.getWinCondition());
+        assertEquals('X', board.getCurrentPlayer());
+        assertEquals('O', board.getCell(1, 1));
+
+        board = MoveServer.parseBoard("X...............", "3");
+        assertEquals(4, board.getSize());
+        assertEquals(3, board.getWinCondition());
+        assertEquals('O', board.getCurrentPlayer());
+
+        for (String bad : new String[] {"XX.......", "X.O", "XO?......", "XO......"}) {
+            try {
+                MoveServer.parseBoard(bad, null);
+                fail("Should reject " + bad);
+            } catch (IllegalArgumentException expected) {
+                System.out.println("  Rejected " + bad + ": " + expected.getMessage());
+            }
+        }
+        System.out.println("  ✓ Boards decode and invalid ones are rejected");
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        System.out.println("\nMove Server Test 2 - Latency Histogram:");
+        MoveServer.LatencyHistogram histogram = new MoveServer.LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.5));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        long p50 = histogram.percentile(0.50);
+        long p99 = histogram.percentile(0.99);
+        System.out.println("  1..1000us: p50 " + p50 + "us, p99 " + p99 + "us");
+        assertEquals(1000, histogram.count());
+        assertTrue("p50 within a bucket of 500", p50 >= 500 && p50 <= 500 * 1.25);
+        assertTrue("p99 within a bucket of 990", p99 >= 990 && p99 <= 990 * 1.25);
+        System.out.println("  ✓ Percentiles fall in the right buckets");
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        System.out.println("\nMove Server Test 3 - Concurrent Requests:");
+        MoveServer server = new MoveServer(0, 2, 1 << 16);
+        server.start();
+        HttpClient client = HttpClient.newHttpClient();
+        String base = "http://localhost:" + server.getPort();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                String query = i % 2 == 0 ? "board=XX./OO./...&time=50" : "board=X......O........&k=3&time=5";
+                responses.add(clients.submit(() -> client.send(
+                        HttpRequest.newBuilder(URI.create(base + "/move?" + query)).build(),
+                        HttpResponse.BodyHandlers.ofString())));
+            }
+            for (int i = 0; i < responses.size(); i++) {
+                HttpResponse<String> response = responses.get(i).get();
+                assertEquals(200, response.statusCode());
+                if (i % 2 == 0) {
+                    assertTrue("X takes the win: " + response.body(),
+                               response.body().startsWith("{\"row\":0,\"col\":2,\"player\":\"X\""));
+                }
+            }
+
+            HttpResponse<String> error = client.send(
+                    HttpRequest.newBuilder(URI.create(base + "/move?board=XXX/OO./...")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, error.statusCode());
+            System.out.println("  Finished game: " + error.body());
+
+            String stats = client.send(HttpRequest.newBuilder(URI.create(base + "/stats")).build(),
+                                       HttpResponse.BodyHandlers.ofString()).body();
+            System.out.println("  " + stats);
+            assertTrue(stats.startsWith("{\"requests\":401,"));
+        } finally {
+            server.stop(0);
+        }
+        System.out.println("  ✓ 400 concurrent requests answered on 2 search threads");
+    }
+
+    @Test
+    public void testErrorsAreValidJson() throws Exception {
+        System.out.println("\nMove Server Test 4 - Escaped Error Messages:");
+        assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", MoveServer.jsonString("a\"b\\c\nd\u0001"));
+
+        MoveServer server = new MoveServer(0, 1, 1 << 10);
+        server.start();
+        HttpClient client = HttpClient.newHttpClient();
+        String base = "http://localhost:" + server.getPort() + "/move?";
+        try {
+            String[][] cases = {
+                {"board=X%5C.......", "{\"error\":\"Unexpected cell: \\\\\"}"},
+                {"board=.........&k=3%0A", "{\"error\":\"k must be a number: 3\\n\"}"},
+                {"board=.........&time=%22%09", "{\"error\":\"time must be a number: \\\"\\t\"}"},
+            };
+            for (String[] c : cases) {
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + c[0])).build(),
+                                                             HttpResponse.BodyHandlers.ofString());
+                System.out.println("  " + c[0] + ": " + response.body());
+                assertEquals(400, response.statusCode());
+                assertEquals(c[1], response.body());
+            }
+        } finally {
+            server.stop(0);
+        }
+        System.out.println("  ✓ Backslashes, quotes and control characters are escaped");
+    }
+}
@@ -0,0 +1,53 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class OpeningBookTest {
+
+    @Test
+    public void testBuildAndLookup() throws IOException {
+        System.out.println("Opening Book Test 1 - Build and Lookup:");
+
+        Path file = Files.createTempFile("opening", ".book");
+        try {
+            int positions = OpeningBookBuilder.build(4, 3, 2, 3, file);
+            OpeningBook book = OpeningBook.open(file);
+            System.out.println("  4x4 k=3, 2 plies: " + positions + " positions");
+            assertEquals(positions, book.size());
+
+            // The first position is searched by a fresh agent, so it matches one
+            Board empty = GameEngine.initialState(4, 3);
+            assertEquals(new AlphaBetaAgent(3, true).alphaBeta(empty), book.lookup(empty));
+
+            // Every one-stone position is covered, including symmetric ones
+            for (Move first : GameEngine.actions(empty)) {
+                Board board = empty.makeMove(first);
+                Move move = book.lookup(board);
+                assertNotNull("Book should cover " + first, move);
+                assertTrue(board.isEmpty(move.getRow(), move.getCol()));
+            }
+
+            // Beyond the book depth, or on another board, there is nothing
+            Board deeper = empty.makeMove(new Move(0, 0)).makeMove(new Move(1, 1));
+            assertNull(book.lookup(deeper));
+            assertNull(book.lookup(GameEngine.initialState(5, 4)));
+
+            AlphaBetaAgent agent = new AlphaBetaAgent(3, true);
+            agent.setOpeningBook(book);
+            agent.alphaBeta(deeper); // a searched position leaves a real value behind
+            Board opened = empty.makeMove(new Move(2, 1));
+            assertEquals(book.lookup(opened), agent.alphaBeta(opened, 1000));
+            assertEquals("Book moves need no search", 0, agent.getNodesExplored());
+            assertTrue("Book moves have no value", Double.isNaN(agent.getLastValue()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        System.out.println("  ✓ Book moves returned without searching");
+    }
+}
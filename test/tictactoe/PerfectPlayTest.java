@@ -0,0 +1,106 @@
+package tictactoe;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PerfectPlayTest {
+
+    @Test
+    public void testMatchesMinimaxEverywhere() {
+        System.out.println("3x3 board - Perfect Play Table Test:");
+        assertEquals(0, PerfectPlay.value(GameEngine.initialState(3, 3)));
+        System.out.println("  " + PerfectPlay.getReachablePositions() + " reachable positions, " +
+                PerfectPlay.getSolvedPositions() + " solved up to symmetry");
+        assertEquals(5478, PerfectPlay.getReachablePositions());
+        assertEquals(765, PerfectPlay.getSolvedPositions() + terminalClasses());
+
+        // Every non-terminal position: the same move and value as memoized minimax
+        MinimaxAgent minimax = new MinimaxAgent(true);
+        AlphaBetaAgent exact = new AlphaBetaAgent();
+        Set<Integer> seen = new HashSet<>();
+        int[] checked = new int[1];
+        walk(GameEngine.initialState(3, 3), seen, minimax, exact, checked);
+        assertEquals(5478, seen.size());
+        System.out.println("  ✓ " + checked[0] + " positions agree with minimax");
+    }
+
+    @Test
+    public void testLookups() {
+        System.out.println("\n3x3 board - Perfect Play Lookups:");
+        Board board = GameEngine.initialState(3, 3)
+                .makeMove(new Move(0, 0)).makeMove(new Move(1, 0))
+                .makeMove(new Move(0, 1)).makeMove(new Move(1, 1));
+        assertEquals(new Move(0, 2), PerfectPlay.bestMove(board));
+        assertEquals(1, PerfectPlay.value(board));
+
+        Board won = board.makeMove(new Move(0, 2));
+        assertNull(PerfectPlay.bestMove(won));
+        assertEquals(1, PerfectPlay.value(won));
+
+        assertFalse(PerfectPlay.covers(GameEngine.initialState(4, 3)));
+        try {
+            PerfectPlay.value(GameEngine.initialState(4, 3));
+            fail("4x4 is not covered");
+        } catch (IllegalArgumentException expected) {
+            // Only 3x3 is tabulated
+        }
+
+        long start = System.nanoTime();
+        long sum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sum += PerfectPlay.value(board);
+        }
+        System.out.println("  100000 lookups in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        assertEquals(100_000, sum);
+        System.out.println("  ✓ Wins, finished games and other boards handled");
+    }
+
+    private static void walk(Board board, Set<Integer> seen, MinimaxAgent minimax, AlphaBetaAgent exact,
+                             int[] checked) {
+        if (!seen.add(PerfectPlay.key(board))) {
+            return;
+        }
+        Integer utility = GameEngine.utility(board);
+        if (GameEngine.terminal(board)) {
+            assertEquals(utility == null ? 0 : utility.intValue(), PerfectPlay.value(board));
+            return;
+        }
+        assertEquals(minimax.minimax(board), PerfectPlay.bestMove(board));
+        exact.alphaBeta(board);
+        assertEquals(exact.getLastValue(), PerfectPlay.value(board), 0.0);
+        checked[0]++;
+        for (Move move : GameEngine.actions(board)) {
+            walk(board.makeMove(move), seen, minimax, exact, checked);
+        }
+    }
+
+    /**
+     * Terminal positions up to symmetry, which the solver scores without
+     * memoizing
+     */
+    private static int terminalClasses() {
+        Set<Long> classes = new HashSet<>();
+        collectTerminal(new SearchBoard(GameEngine.initialState(3, 3)), classes, new HashSet<>());
+        return classes.size();
+    }
+
+    private static void collectTerminal(SearchBoard board, Set<Long> classes, Set<Long> seen) {
+        if (!seen.add(board.getZobristKey())) {
+            return;
+        }
+        if (GameEngine.terminal(board)) {
+            classes.add(board.getSymmetricKey(board.canonicalSymmetry(Symmetry.ALL)));
+            return;
+        }
+        int[] moves = new int[9];
+        int count = board.emptyCells(moves);
+        for (int i = 0; i < count; i++) {
+            board.play(moves[i]);
+            collectTerminal(board, classes, seen);
+            board.undo();
+        }
+    }
+}
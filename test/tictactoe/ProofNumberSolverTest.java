@@ -0,0 +1,83 @@
+package tictactoe;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ProofNumberSolverTest {
+
+    @Test
+    public void testSolveSmallBoards() {
+        System.out.println("Proof Number Test 1 - Game Values:");
+        ProofNumberSolver solver = new ProofNumberSolver(16);
+
+        assertEquals(ProofNumberSolver.Result.DRAW, solver.solve(GameEngine.initialState(3, 3)));
+        long pnNodes = solver.getNodes();
+        MinimaxAgent minimax = new MinimaxAgent();
+        minimax.minimax(GameEngine.initialState(3, 3));
+        System.out.println("  3x3: draw in " + pnNodes + " nodes (minimax: " + minimax.getNodesExplored() + ")");
+        assertTrue(pnNodes * 10 < minimax.getNodesExplored());
+
+        assertEquals(ProofNumberSolver.Result.X_WINS, solver.solve(GameEngine.initialState(4, 3)));
+        System.out.println("  4x4, k=3: first-player win in " + solver.getNodes() + " nodes, proof of " +
+                solver.getProofSize() + " positions");
+        assertTrue(solver.getProofSize() > 0);
+
+        // Decided positions: O to move but X has an unstoppable double threat
+        Board board = GameEngine.initialState(3, 3)
+                .makeMove(new Move(0, 0)).makeMove(new Move(1, 1))
+                .makeMove(new Move(2, 2)).makeMove(new Move(0, 2))
+                .makeMove(new Move(2, 0)).makeMove(new Move(1, 0));
+        assertEquals(ProofNumberSolver.Result.X_WINS, solver.solve(board));
+
+        System.out.println("  ✓ Values match the known results");
+    }
+
+    @Test
+    public void testDrawProofAndLimits() {
+        System.out.println("\nProof Number Test 2 - 4x4 k=4 Draw, Memory Cap and Node Limit:");
+        Board board = GameEngine.initialState(4, 4).makeMove(new Move(1, 1)).makeMove(new Move(2, 2));
+        ProofNumberSolver solver = new ProofNumberSolver(16);
+        long start = System.currentTimeMillis();
+        assertEquals(ProofNumberSolver.Result.DRAW, solver.solve(board));
+        System.out.println("  4x4, k=4 after (1, 1), (2, 2): draw in " + solver.getNodes() + " nodes, " +
+                (System.currentTimeMillis() - start) + "ms, table of " + solver.getCapacity() + " entries");
+        assertTrue("The table should fit the memory cap", solver.getCapacity() * 20L <= 16 << 20);
+
+        ProofNumberSolver limited = new ProofNumberSolver(1);
+        limited.setNodeLimit(100);
+        assertEquals(ProofNumberSolver.Result.UNKNOWN, limited.solve(GameEngine.initialState(4, 4)));
+        System.out.println("  ✓ Draw proven within the memory cap; node limit gives UNKNOWN");
+    }
+
+    @Test
+    public void testExportProof() throws IOException {
+        System.out.println("\nProof Number Test 3 - Proof Tree Export:");
+        ProofNumberSolver solver = new ProofNumberSolver(1);
+        Board board = GameEngine.initialState(4, 3);
+        StringBuilder proof = new StringBuilder();
+        solver.exportProof(board, 'X', proof);
+
+        String[] lines = proof.toString().split("\n");
+        System.out.println("  " + lines[0]);
+        System.out.println("  " + (lines.length - 1) + " moves listed");
+        assertTrue(lines[0].startsWith("Proof that X wins"));
+        assertTrue("The first move is X's", lines[1].startsWith("X ("));
+        int wins = 0;
+        for (String line : lines) {
+            if (line.endsWith("wins")) {
+                assertTrue("Only X wins in the proof", line.trim().startsWith("X"));
+                wins++;
+            }
+        }
+        assertTrue(wins > 0);
+
+        try {
+            solver.exportProof(GameEngine.initialState(3, 3), 'X', new StringBuilder());
+            fail("3x3 is not a win");
+        } catch (IllegalStateException expected) {
+            System.out.println("  ✓ Proof exported; unproven positions are rejected");
+        }
+    }
+}
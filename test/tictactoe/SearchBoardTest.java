@@ -0,0 +1,184 @@
+package tictactoe;
+
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SearchBoardTest {
+
+    @Test
+    public void testPlayAndUndo() {
+        System.out.println("Search Board Test 1 - Play and Undo:");
+
+        SearchBoard board = new SearchBoard(3, 3);
+        board.play(new Move(1, 1)); // X
+        board.play(new Move(0, 0)); // O
+
+        System.out.println("  After two moves, player: " + board.getCurrentPlayer());
+
+        assertEquals('X', board.getCell(1, 1));
+        assertEquals('O', board.getCell(0, 0));
+        assertEquals('X', board.getCurrentPlayer());
+        assertEquals(2, board.getMoveCount());
+
+        board.undo();
+        board.undo();
+
+        System.out.println("  After undoing both, move count: " + board.getMoveCount());
+
+        assertTrue(board.isEmpty(1, 1));
+        assertTrue(board.isEmpty(0, 0));
+        assertEquals('X', board.getCurrentPlayer());
+        assertEquals(0, board.getMoveCount());
+
+        System.out.println("  ✓ Moves applied and reverted in place");
+    }
+
+    @Test
+    public void testMatchesBoard() {
+        System.out.println("\nSearch Board Test 2 - Copy of Board (9x9):");
+
+        Board board = GameEngine.initialState(9, 4);
+        board = board.makeMove(new Move(4, 4));
+        board = board.makeMove(new Move(8, 8));
+        board = board.makeMove(new Move(0, 7));
+
+        SearchBoard search = new SearchBoard(board);
+        int[] cells = new int[search.getCellCount()];
+        int count = search.emptyCells(cells);
+
+        System.out.println("  Empty cells: " + count);
+
+        assertEquals(GameEngine.actions(board).size(), count);
+        assertEquals(board.getCurrentPlayer(), search.getCurrentPlayer());
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                assertEquals(board.getCell(i, j), search.getCell(i, j));
+            }
+        }
+        for (int i = 1; i < count; i++) {
+            assertTrue("Empty cells should be in ascending order", cells[i - 1] < cells[i]);
+        }
+
+        System.out.println("  ✓ Search board matches the snapshot");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOccupiedCell() {
+        SearchBoard board = new SearchBoard(3, 3);
+        board.play(4);
+        board.play(4); // Should throw
+    }
+
+    @Test
+    public void testWinnerRestoredOnUndo() {
+        SearchBoard board = new SearchBoard(3, 3);
+        board.play(0); // X
+        board.play(3); // O
+        board.play(1); // X
+        board.play(4); // O
+        board.play(2); // X wins along the top row
+
+        assertEquals(Character.valueOf('X'), board.getWinner());
+        assertTrue(GameEngine.terminal(board));
+
+        board.undo();
+        assertNull(board.getWinner());
+        assertFalse(GameEngine.terminal(board));
+    }
+
+    @Test
+    public void testIncrementalEvaluation() {
+        System.out.println("\nSearch Board Test 5 - Incremental Evaluation:");
+
+        int[][] configs = {{3, 3}, {4, 3}, {5, 4}, {7, 4}, {9, 5}};
+        Random random = new Random(42);
+        int checked = 0;
+
+        for (int[] config : configs) {
+            int m = config[0];
+            int k = config[1];
+            for (int game = 0; game < 20; game++) {
+                SearchBoard board = new SearchBoard(m, k);
+                int[] empty = new int[m * m];
+                while (!GameEngine.terminal(board)) {
+                    int count = board.emptyCells(empty);
+                    board.play(empty[random.nextInt(count)]);
+                    assertEquals(HeuristicEvaluator.evaluate((Position) board),
+                            HeuristicEvaluator.evaluate(board), 0.0);
+                    checked++;
+                }
+                while (board.getPly() > 0) {
+                    board.undo();
+                    assertEquals(HeuristicEvaluator.evaluate((Position) board),
+                            HeuristicEvaluator.evaluate(board), 0.0);
+                }
+            }
+        }
+
+        // Starting from a snapshot seeds the counters from its stones
+        Board snapshot = GameEngine.initialState(5, 4)
+                .makeMove(new Move(0, 0)).makeMove(new Move(2, 2)).makeMove(new Move(0, 1));
+        assertEquals(HeuristicEvaluator.evaluate(snapshot),
+                HeuristicEvaluator.evaluate(new SearchBoard(snapshot)), 0.0);
+
+        System.out.println("  Compared " + checked + " positions against a full rescan");
+        System.out.println("  ✓ Incremental score matches evaluate");
+    }
+
+    @Test
+    public void testProximityCandidates() {
+        System.out.println("\nSearch Board Test 6 - Proximity Candidates:");
+
+        int m = 15;
+        Random random = new Random(7);
+        MoveGenerator generator = new ProximityMoveGenerator(2);
+        SearchBoard board = new SearchBoard(m, 5);
+        int[] buffer = new int[m * m];
+        int[] empty = new int[m * m];
+
+        assertEquals("Empty board starts in the center", 1, generator.generate(board, buffer));
+        assertEquals(7 * m + 7, buffer[0]);
+
+        int checked = 0;
+        for (int step = 0; step < 400; step++) {
+            // Mostly play near the stones, sometimes anywhere; undo now and then
+            if (board.getPly() > 0 && random.nextInt(3) == 0) {
+                board.undo();
+            } else if (!GameEngine.terminal(board)) {
+                int count = random.nextInt(4) == 0 ? board.emptyCells(empty) : generator.generate(board, empty);
+                board.play(empty[random.nextInt(count)]);
+            }
+
+            int count = generator.generate(board, buffer);
+            int expected = 0;
+            for (int cell = 0; cell < m * m; cell++) {
+                if (board.isEmpty(cell) && nearStone(board, cell, 2)) {
+                    assertEquals("Candidates should be the empty cells near a stone, ascending",
+                            cell, buffer[expected]);
+                    expected++;
+                }
+            }
+            if (board.getMoveCount() > 0) {
+                assertEquals(expected, count);
+            }
+            checked++;
+        }
+
+        System.out.println("  Compared " + checked + " positions against a full scan");
+        System.out.println("  ✓ Incremental candidates match");
+    }
+
+    private static boolean nearStone(SearchBoard board, int cell, int radius) {
+        int m = board.getSize();
+        for (int r = Math.max(0, cell / m - radius); r <= Math.min(m - 1, cell / m + radius); r++) {
+            for (int c = Math.max(0, cell % m - radius); c <= Math.min(m - 1, cell % m + radius); c++) {
+                if (!board.isEmpty(r, c)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,138 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SearchEngineTest {
+
+    @Test
+    public void testConcurrentSearchesMatchAgent() {
+        System.out.println("Search Engine Test 1 - Concurrent Searches on One Engine (4x4, k=3):");
+        Random random = new Random(5);
+        List<Board> boards = new ArrayList<>();
+        while (boards.size() < 24) {
+            Board board = GameEngine.initialState(4, 3);
+            for (int i = 0; i < 4 + random.nextInt(4) && !GameEngine.terminal(board); i++) {
+                List<Move> moves = GameEngine.actions(board);
+                board = board.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            if (!GameEngine.terminal(board)) {
+                boards.add(board);
+            }
+        }
+
+        try (SearchEngine engine = new SearchEngine(4)) {
+            List<CompletableFuture<SearchResult>> futures = new ArrayList<>();
+            for (Board board : boards) {
+                futures.add(engine.search(board, new SearchContext()));
+            }
+            for (int i = 0; i < boards.size(); i++) {
+                SearchResult result = futures.get(i).join();
+                AlphaBetaAgent agent = new AlphaBetaAgent();
+                agent.alphaBeta(boards.get(i));
+                assertEquals("Exact values agree", agent.getLastValue(), result.getValue(), 0.0);
+                assertFalse(result.isStopped());
+
+                // The principal variation starts with the move and is legal
+                List<Move> pv = result.getPrincipalVariation();
+                assertEquals(result.getMove(), pv.get(0));
+                Board line = boards.get(i);
+                for (Move move : pv) {
+                    line = line.makeMove(move);
+                }
+            }
+            System.out.println("  e.g. " + futures.get(0).join());
+        }
+        System.out.println("  ✓ " + boards.size() + " concurrent searches agree with single agents");
+    }
+
+    @Test
+    public void testCancelAndLimits() throws Exception {
+        System.out.println("\nSearch Engine Test 2 - Cancellation and Node Limit (7x7, k=4):");
+        Board board = GameEngine.initialState(7, 4).makeMove(new Move(3, 3));
+        try (SearchEngine engine = new SearchEngine(1)) {
+            SearchContext context = new SearchContext();
+            CompletableFuture<SearchResult> future = engine.search(board, context);
+            Thread.sleep(300);
+            long cancelled = System.nanoTime();
+            context.cancel();
+            SearchResult result = future.get(5, TimeUnit.SECONDS);
+            long stopMillis = (System.nanoTime() - cancelled) / 1_000_000;
+            System.out.println("  Cancelled after depth " + result.getDepth() + ", stopped in " + stopMillis +
+                    "ms: " + result.getMove());
+            assertTrue(result.isStopped());
+            assertNotNull("Best move so far", result.getMove());
+            assertTrue(result.getDepth() >= 1);
+
+            SearchContext limited = new SearchContext();
+            limited.setNodeLimit(20_000);
+            result = engine.search(board, limited).join();
+            System.out.println("  Node limit 20000: " + result.getStats().getNodes() + " nodes, depth " +
+                    result.getDepth());
+            assertTrue(result.isStopped());
+            assertTrue(result.getStats().getNodes() < 20_000 + 2048);
+
+            // Cancelling the future stops the search on the engine's only thread
+            CompletableFuture<SearchResult> abandoned = engine.search(board, new SearchContext());
+            Thread.sleep(100);
+            abandoned.cancel(true);
+            try {
+                abandoned.join();
+                fail("Cancelled future should not complete normally");
+            } catch (CancellationException expected) {
+                // The next search needs the thread back
+            }
+            SearchContext quick = new SearchContext();
+            quick.setMaxDepth(2);
+            assertEquals(2, engine.search(board, quick).get(5, TimeUnit.SECONDS).getDepth());
+        }
+        System.out.println("  ✓ Cancelled and limited searches return their best move so far");
+    }
+
+    @Test
+    public void testLimitsReachHelperThreads() {
+        System.out.println("\nSearch Engine Test 3 - Limits With Helper Threads (7x7, k=4):");
+        Board board = GameEngine.initialState(7, 4).makeMove(new Move(3, 3));
+        for (boolean deterministic : new boolean[] {false, true}) {
+            AlphaBetaAgent agent = new AlphaBetaAgent();
+            agent.setThreadCount(4);
+            agent.setDeterministic(deterministic);
+            String mode = deterministic ? "Deterministic" : "Lazy SMP";
+
+            SearchContext limited = new SearchContext();
+            limited.setNodeLimit(20_000);
+            assertNotNull(agent.alphaBeta(board, limited));
+            System.out.println("  " + mode + ", node limit 20000: " + agent.getNodesExplored() +
+                    " nodes over all threads, depth " + agent.getCompletedDepth());
+            assertTrue("The limit counts every thread", agent.getNodesExplored() < 20_000 + 4 * 2048);
+
+            SearchContext cancelled = new SearchContext();
+            cancelled.cancel();
+            assertNotNull(agent.alphaBeta(board, cancelled));
+            assertEquals("Only the first iteration completes", 1, agent.getCompletedDepth());
+            assertTrue(agent.getNodesExplored() < 4 * 2048);
+        }
+
+        // Settings changed after setThreadCount reach the helpers
+        AlphaBetaAgent changed = new AlphaBetaAgent(3, true);
+        changed.setThreadCount(3);
+        changed.setDeterministic(true);
+        changed.setMoveOrdering(false);
+        changed.alphaBeta(board);
+        AlphaBetaAgent unordered = new AlphaBetaAgent(3, false);
+        unordered.setThreadCount(3);
+        unordered.setDeterministic(true);
+        unordered.alphaBeta(board);
+        System.out.println("  Ordering turned off after setThreadCount: " + changed.getNodesExplored() +
+                " nodes, built without it: " + unordered.getNodesExplored());
+        assertEquals(unordered.getNodesExplored(), changed.getNodesExplored());
+        System.out.println("  ✓ Node limit, cancellation and settings apply to all threads");
+    }
+}
@@ -0,0 +1,73 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TablebaseTest {
+
+    @Test
+    public void testSolves3x3() {
+        System.out.println("Tablebase Test 1 - Solve 3x3:");
+
+        Tablebase tablebase = TablebaseGenerator.generate(3, 3, 9);
+
+        int empty = tablebase.probe(GameEngine.initialState(3, 3));
+        System.out.println("  Empty board: result " + Tablebase.result(empty) +
+                ", distance " + Tablebase.distance(empty));
+        assertEquals(Tablebase.DRAW, Tablebase.result(empty));
+        assertEquals(9, Tablebase.distance(empty));
+
+        // X to move with two in the top row wins at once
+        Board board = GameEngine.initialState(3, 3)
+                .makeMove(new Move(0, 0))
+                .makeMove(new Move(1, 1))
+                .makeMove(new Move(0, 1))
+                .makeMove(new Move(2, 2));
+        int entry = tablebase.probe(board);
+        assertEquals(Tablebase.X_WINS, Tablebase.result(entry));
+        assertEquals(1, Tablebase.distance(entry));
+
+        assertEquals(-1, tablebase.probe(GameEngine.initialState(4, 3)));
+
+        System.out.println("  ✓ Results match known 3x3 values");
+    }
+
+    @Test
+    public void testMatchesSearch() throws IOException {
+        System.out.println("\nTablebase Test 2 - Mapped File Matches Search:");
+
+        Path file = Files.createTempFile("tablebase", ".bin");
+        try {
+            TablebaseGenerator.write(TablebaseGenerator.generate(4, 3, 6), file);
+            Tablebase tablebase = Tablebase.open(file);
+
+            Board board = GameEngine.initialState(4, 3)
+                    .makeMove(new Move(0, 0)).makeMove(new Move(1, 1))
+                    .makeMove(new Move(3, 3)).makeMove(new Move(0, 3))
+                    .makeMove(new Move(3, 0)).makeMove(new Move(1, 2))
+                    .makeMove(new Move(2, 1)).makeMove(new Move(0, 1))
+                    .makeMove(new Move(1, 0)).makeMove(new Move(2, 0));
+
+            AlphaBetaAgent plain = new AlphaBetaAgent();
+            AlphaBetaAgent probing = new AlphaBetaAgent();
+            probing.setTablebase(tablebase);
+            Move expected = plain.alphaBeta(board);
+            Move move = probing.alphaBeta(board);
+
+            System.out.println("  Without tablebase: " + expected + ", " + plain.getNodesExplored() + " nodes");
+            System.out.println("  With tablebase: " + move + ", " + probing.getNodesExplored() + " nodes");
+
+            assertEquals(expected, move);
+            assertEquals(plain.getLastValue(), Tablebase.utility(tablebase.probe(board)), 0.0);
+            assertTrue(probing.getNodesExplored() <= plain.getNodesExplored());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        System.out.println("  ✓ Tablebase agrees with full search");
+    }
+}
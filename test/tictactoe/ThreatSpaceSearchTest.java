@@ -0,0 +1,146 @@
+package tictactoe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ThreatSpaceSearchTest {
+
+    @Test
+    public void testDeepForcedWin() {
+        System.out.println("Threat Space Search Test 1 - Deep VCF (9x9, k=5):");
+        Board board = position(
+                "...X.X...",
+                "...XOOO..",
+                "....XX...",
+                "....OO..X",
+                "..XXXOXOO",
+                ".......O.",
+                ".........",
+                ".........",
+                ".........");
+        assertEquals('O', board.getCurrentPlayer());
+
+        ThreatSpaceSearch threats = new ThreatSpaceSearch();
+        int first = threats.findWin(new SearchBoard(board));
+        int[] sequence = threats.getSequence();
+        System.out.println("  Winning line: " + Arrays.toString(sequence) + " (" + sequence.length +
+                " plies, " + threats.getNodes() + " nodes)");
+
+        assertTrue("Should find the forced win", first >= 0);
+        assertEquals(first, sequence[0]);
+        assertTrue("The win should be deep", sequence.length >= 9);
+        verifyForced(board, sequence);
+
+        AlphaBetaAgent agent = new AlphaBetaAgent(3, true);
+        agent.setThreatSearch(new ThreatSpaceSearch());
+        Move move = agent.alphaBeta(board);
+        assertEquals(new Move(first / 9, first % 9), move);
+        assertEquals("A forced win for O", -1, agent.getLastValue(), 0.0);
+
+        System.out.println("  ✓ Every defence was forced and the line wins");
+    }
+
+    @Test
+    public void testSoundAgainstFullSearch() {
+        System.out.println("\nThreat Space Search Test 2 - Wins Confirmed by Full Search (4x4, k=3):");
+        Random random = new Random(3);
+        ThreatSpaceSearch threats = new ThreatSpaceSearch();
+        int positions = 0;
+        int wins = 0;
+
+        while (positions < 200) {
+            Board board = GameEngine.initialState(4, 3);
+            int stones = 2 + random.nextInt(5);
+            for (int i = 0; i < stones && !GameEngine.terminal(board); i++) {
+                List<Move> moves = GameEngine.actions(board);
+                board = board.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+            if (GameEngine.terminal(board)) {
+                continue;
+            }
+            positions++;
+
+            int cell = threats.findWin(new SearchBoard(board));
+            if (cell < 0) {
+                continue;
+            }
+            wins++;
+            verifyForced(board, threats.getSequence());
+
+            // An exhaustive search must agree that the player to move wins
+            AlphaBetaAgent exact = new AlphaBetaAgent(16, true);
+            exact.alphaBeta(board);
+            double expected = board.getCurrentPlayer() == 'X' ? 1 : -1;
+            assertEquals("VCF win should be a real win", expected, exact.getLastValue(), 0.0);
+        }
+
+        System.out.println("  " + wins + " of " + positions + " positions have a VCF win");
+        assertTrue("Some positions should have a forced win", wins > 0);
+        System.out.println("  ✓ Every VCF win is confirmed");
+    }
+
+    /**
+     * Replays the line, checking that each defender reply was the only way
+     * to avoid losing at once and that the attacker wins at the end
+     */
+    private static void verifyForced(Board board, int[] sequence) {
+        int m = board.getSize();
+        char attacker = board.getCurrentPlayer();
+        for (int i = 0; i < sequence.length; i++) {
+            Move move = new Move(sequence[i] / m, sequence[i] % m);
+            assertTrue("Line moves must be legal", board.isEmpty(move.getRow(), move.getCol()));
+            if (i % 2 == 1 && i < sequence.length - 1) {
+                // Defender: every other reply lets the attacker win next move
+                for (Move other : GameEngine.actions(board)) {
+                    Board after = board.makeMove(other);
+                    assertNull("Defender must not win", GameEngine.winner(after));
+                    if (!other.equals(move)) {
+                        assertTrue("Reply " + move + " should be forced", winsNext(after));
+                    }
+                }
+            }
+            board = board.makeMove(move);
+        }
+        assertEquals(Character.valueOf(attacker), GameEngine.winner(board));
+    }
+
+    private static boolean winsNext(Board board) {
+        char player = board.getCurrentPlayer();
+        for (Move move : GameEngine.actions(board)) {
+            if (Character.valueOf(player).equals(GameEngine.winner(board.makeMove(move)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Board position(String... rows) {
+        List<Move> xs = new ArrayList<>();
+        List<Move> os = new ArrayList<>();
+        for (int row = 0; row < rows.length; row++) {
+            for (int col = 0; col < rows.length; col++) {
+                char c = rows[row].charAt(col);
+                if (c == 'X') {
+                    xs.add(new Move(row, col));
+                } else if (c == 'O') {
+                    os.add(new Move(row, col));
+                }
+            }
+        }
+        Board board = GameEngine.initialState(rows.length, 5);
+        for (int i = 0; i < xs.size() || i < os.size(); i++) {
+            if (i < xs.size()) {
+                board = board.makeMove(xs.get(i));
+            }
+            if (i < os.size()) {
+                board = board.makeMove(os.get(i));
+            }
+        }
+        return board;
+    }
+}
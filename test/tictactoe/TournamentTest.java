@@ -0,0 +1,139 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TournamentTest {
+
+    @Test
+    public void testAgentSpecParsing() {
+        System.out.println("Tournament Test 1 - Agent Specs:");
+        AgentSpec spec = AgentSpec.parse("alphabeta:depth=3,ordering=false");
+        assertEquals(AgentSpec.Type.ALPHA_BETA, spec.getType());
+        assertEquals("alphabeta:depth=3,ordering=false", spec.toString());
+        assertEquals(AgentSpec.Type.MCTS, AgentSpec.parse("mcts:playouts=100").getType());
+        assertEquals("minimax", AgentSpec.parse("minimax").toString());
+
+        for (String bad : new String[] {"random", "alphabeta:depth", "alphabeta:depth=x",
+                                         "alphabeta:pvs=yes", "mcts:depth=3", "mcts:playouts=0",
+                                         "minimax:depth=1"}) {
+            try {
+                AgentSpec.parse(bad);
+                fail("Should reject " + bad);
+            } catch (IllegalArgumentException expected) {
+                System.out.println("  Rejected " + bad + ": " + expected.getMessage());
+            }
+        }
+        System.out.println("  ✓ Specs parse and invalid ones are rejected");
+    }
+
+    @Test
+    public void testMatchAndResultsFile() throws IOException {
+        System.out.println("\nTournament Test 2 - Perfect Play Against Weak Search (3x3):");
+        Tournament tournament = new Tournament(3, 3, AgentSpec.parse("alphabeta"),
+                                               AgentSpec.parse("alphabeta:depth=1"));
+        Path results = Files.createTempFile("tournament", ".tsv");
+        tournament.setResultsFile(results);
+        tournament.setThreads(2);
+        tournament.setOpeningPlies(1);
+        try {
+            Tournament.Summary summary = tournament.play(20);
+            System.out.println("  " + summary);
+
+            assertEquals(20, summary.getGames());
+            assertEquals("Exact search never loses", 0, summary.getLosses());
+            assertTrue(summary.getScore() > 0.5);
+            assertTrue(summary.getElo() > 0);
+
+            List<String> lines = Files.readAllLines(results);
+            assertEquals("Two header lines and one line per game", 22, lines.size());
+            for (String line : lines.subList(2, lines.size())) {
+                assertEquals(5, line.split("\t").length);
+            }
+            System.out.println("  ✓ All games recorded, the stronger agent scores higher");
+        } finally {
+            Files.delete(results);
+        }
+    }
+
+    @Test
+    public void testResultsFileOnLargerBoard() throws IOException {
+        System.out.println("\nTournament Test 3 - Results File on 5x5 (k=4):");
+        Tournament tournament = new Tournament(5, 4, AgentSpec.parse("alphabeta:depth=2"),
+                                               AgentSpec.parse("alphabeta:depth=1"));
+        Path results = Files.createTempFile("tournament", ".tsv");
+        tournament.setResultsFile(results);
+        tournament.setThreads(2);
+        tournament.setOpeningPlies(3);
+        try {
+            assertEquals(4, tournament.play(4).getGames());
+            List<String> lines = Files.readAllLines(results);
+            assertEquals(6, lines.size());
+            for (String line : lines.subList(2, lines.size())) {
+                System.out.println("  " + line);
+                String[] fields = line.split("\t");
+                int plies = Integer.parseInt(fields[3]);
+                int recorded = fields[4].isEmpty() ? 0 : fields[4].split(" ").length;
+                assertEquals("Plies are the opening plus the recorded moves", 3 + recorded, plies);
+                assertTrue(plies <= 25);
+            }
+            System.out.println("  ✓ Ply counts are right with two-digit cells");
+        } finally {
+            Files.delete(results);
+        }
+    }
+
+    @Test
+    public void testSprtStopsEarly() throws IOException {
+        System.out.println("\nTournament Test 4 - SPRT Early Stop:");
+        Tournament tournament = new Tournament(3, 3, AgentSpec.parse("alphabeta"),
+                                               AgentSpec.parse("alphabeta:depth=1"));
+        tournament.setThreads(1);
+        tournament.setOpeningPlies(1);
+        tournament.setSprt(0, 50);
+        Tournament.Summary summary = tournament.play(1000);
+        System.out.println("  " + summary.getGames() + " games: " + summary);
+
+        assertEquals("H1", summary.getSprtResult());
+        assertTrue("Should stop well before 1000 games", summary.getGames() < 1000);
+
+        // Equal scores carry no evidence either way
+        assertEquals(0, Tournament.llr(new Tournament.Summary(3, 4, 3, Double.NaN), -10, 10), 1e-9);
+        assertEquals(0, Tournament.elo(0.5), 1e-9);
+        assertEquals(0.5, Tournament.expectedScore(0), 1e-9);
+        System.out.println("  ✓ The test accepts H1 and stops the match");
+    }
+
+    @Test
+    public void testPlayerReuse() {
+        System.out.println("\nTournament Test 5 - Players Reused Across Games (4x4, k=3):");
+        AgentSpec spec = AgentSpec.parse("alphabeta:depth=4");
+        AgentSpec.Player x = spec.newPlayer();
+        AgentSpec.Player o = spec.newPlayer();
+        String first = playGame(x, o);
+        x.newGame();
+        o.newGame();
+        String again = playGame(x, o);
+        String fresh = playGame(spec.newPlayer(), spec.newPlayer());
+        System.out.println("  " + first);
+        assertEquals("Cleared players play like fresh ones", fresh, again);
+        assertEquals(fresh, first);
+        System.out.println("  ✓ newGame() forgets the last game");
+    }
+
+    private static String playGame(AgentSpec.Player x, AgentSpec.Player o) {
+        Board board = GameEngine.initialState(4, 3).makeMove(new Move(0, 1));
+        StringBuilder moves = new StringBuilder();
+        while (!GameEngine.terminal(board)) {
+            Move move = (board.getCurrentPlayer() == 'X' ? x : o).apply(board);
+            moves.append(move);
+            board = board.makeMove(move);
+        }
+        return moves.toString();
+    }
+}
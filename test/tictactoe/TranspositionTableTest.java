@@ -0,0 +1,117 @@
+package tictactoe;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testStoreAndProbe() {
+        System.out.println("Transposition Table Test 1 - Store and Probe:");
+
+        TranspositionTable table = new HeapTranspositionTable(1024, TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE);
+        table.store(12345L, -110, 4, TranspositionTable.Bound.LOWER, 7);
+
+        long entry = table.probe(12345L);
+        System.out.println("  Value: " + TranspositionTable.value(entry) +
+                ", depth: " + TranspositionTable.depth(entry) +
+                ", bound: " + TranspositionTable.bound(entry) +
+                ", move: " + TranspositionTable.move(entry));
+
+        assertNotEquals(0, entry);
+        assertEquals(-110.0, TranspositionTable.value(entry), 0.0);
+        assertEquals(4, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.Bound.LOWER, TranspositionTable.bound(entry));
+        assertEquals(7, TranspositionTable.move(entry));
+        assertEquals(0, table.probe(12345L + 1024));
+
+        System.out.println("  ✓ Entry unpacked correctly");
+    }
+
+    @Test
+    public void testReplacementPolicies() {
+        System.out.println("\nTransposition Table Test 2 - Replacement Policies:");
+
+        long deep = 5L;
+        long shallow = 5L + 64; // same slot in a 64-entry table
+
+        TranspositionTable depthPreferred = new HeapTranspositionTable(64, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        depthPreferred.store(deep, 1, 6, TranspositionTable.Bound.EXACT, -1);
+        depthPreferred.store(shallow, 2, 2, TranspositionTable.Bound.EXACT, -1);
+        assertNotEquals(0, depthPreferred.probe(deep));
+        assertEquals(0, depthPreferred.probe(shallow));
+
+        TranspositionTable always = new HeapTranspositionTable(64, TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE);
+        always.store(deep, 1, 6, TranspositionTable.Bound.EXACT, -1);
+        always.store(shallow, 2, 2, TranspositionTable.Bound.EXACT, -1);
+        assertEquals(0, always.probe(deep));
+        assertNotEquals(0, always.probe(shallow));
+
+        TranspositionTable twoTier = new HeapTranspositionTable(64, TranspositionTable.ReplacementPolicy.TWO_TIER);
+        twoTier.store(deep, 1, 6, TranspositionTable.Bound.EXACT, -1);
+        twoTier.store(shallow, 2, 2, TranspositionTable.Bound.EXACT, -1);
+        assertNotEquals(0, twoTier.probe(deep));
+        assertNotEquals(0, twoTier.probe(shallow));
+
+        System.out.println("  ✓ Each policy keeps the expected entries");
+    }
+
+    @Test
+    public void testIncrementalKeys() {
+        System.out.println("\nTransposition Table Test 3 - Incremental Zobrist Keys:");
+
+        // Same position reached by two move orders
+        Board a = GameEngine.initialState(4, 3)
+                .makeMove(new Move(0, 0)).makeMove(new Move(1, 1)).makeMove(new Move(2, 2));
+        Board b = GameEngine.initialState(4, 3)
+                .makeMove(new Move(2, 2)).makeMove(new Move(1, 1)).makeMove(new Move(0, 0));
+
+        SearchBoard search = new SearchBoard(GameEngine.initialState(4, 3));
+        search.play(new Move(2, 2));
+        search.play(new Move(1, 1));
+        search.play(new Move(0, 0));
+
+        assertEquals(a.getZobristKey(), b.getZobristKey());
+        assertEquals(a.getZobristKey(), search.getZobristKey());
+
+        search.undo();
+        search.undo();
+        search.undo();
+        assertEquals(GameEngine.initialState(4, 3).getZobristKey(), search.getZobristKey());
+        assertNotEquals(GameEngine.initialState(4, 4).getZobristKey(), search.getZobristKey());
+
+        System.out.println("  ✓ Transposed positions share a key");
+    }
+
+    @Test
+    public void testOffHeapTable() {
+        System.out.println("\nTransposition Table Test 4 - Off-Heap Table:");
+
+        OffHeapTranspositionTable table = new OffHeapTranspositionTable(1);
+        System.out.println("  1 MB: " + table.getCapacity() + " entries, " + table.getSizeInBytes() + " bytes");
+        assertEquals(65536, table.getCapacity());
+        assertEquals(1 << 20, table.getSizeInBytes());
+
+        table.store(12345L, -110, 4, TranspositionTable.Bound.UPPER, 7);
+        long entry = table.probe(12345L);
+        assertEquals(-110.0, TranspositionTable.value(entry), 0.0);
+        assertEquals(TranspositionTable.Bound.UPPER, TranspositionTable.bound(entry));
+        assertEquals(7, TranspositionTable.move(entry));
+        assertEquals(0, table.probe(12345L + 65536));
+
+        table.store(65535L, 30, 2, TranspositionTable.Bound.EXACT, 1); // last slot
+        table.clear();
+        assertEquals(0, table.probe(12345L));
+        assertEquals(0, table.probe(65535L));
+
+        // Searches give the same result with either table
+        Board board = GameEngine.initialState(4, 3).makeMove(new Move(1, 1));
+        AlphaBetaAgent heap = new AlphaBetaAgent(5, true);
+        AlphaBetaAgent offHeap = new AlphaBetaAgent(5, true);
+        offHeap.setTranspositionTable(new OffHeapTranspositionTable(4));
+        assertEquals(heap.alphaBeta(board), offHeap.alphaBeta(board));
+        assertEquals(heap.getLastValue(), offHeap.getLastValue(), 0.0);
+
+        System.out.println("  ✓ Off-heap table behaves like the heap table");
+    }
+}